@@ -0,0 +1,40 @@
+// ======================= BENCH ENGINES =======================
+// Default-package side of schedbench.Engines: builds a synthetic workload with
+// WorkloadGenerator and forwards every call to the real scheduler on it.
+public class BenchEngines implements schedbench.Engines {
+
+    private Workload workload;
+
+    public BenchEngines() {}
+
+    public void load(int processes, double meanGap, String bursts, long seed) {
+        workload = new WorkloadGenerator()
+                .processes(processes)
+                .seed(seed)
+                .arrivals(WorkloadGenerator.Arrivals.POISSON, meanGap)
+                .bursts(WorkloadGenerator.Bursts.valueOf(bursts.toUpperCase()), 5)
+                .generate();
+    }
+
+    public Object sjfTicks(int contextSwitch) {
+        return PreemptiveSJF.simulateSJF(workload, contextSwitch);
+    }
+
+    public Object sjfEvents(int contextSwitch) {
+        return PreemptiveSJF.simulateSJFEvents(workload, contextSwitch);
+    }
+
+    public Object roundRobin(int quantum, int contextSwitch) {
+        return RoundRobin.simulateRR(workload, quantum, contextSwitch);
+    }
+
+    public Object priority(int contextSwitch, int agingInterval, boolean buckets) {
+        return PreemptivePriority.simulatePriority(workload, contextSwitch, agingInterval,
+                buckets ? PreemptivePriorityScheduling.QueueBackend.BUCKETS
+                        : PreemptivePriorityScheduling.QueueBackend.HEAP);
+    }
+
+    public Object ag() {
+        return new AGScheduler(workload).simulate();
+    }
+}
@@ -0,0 +1,30 @@
+package schedbench;
+
+// ======================= ENGINES =======================
+// What the benchmarks call. JMH only accepts benchmarks in a named package,
+// and a named package cannot see the simulator's default-package classes, so
+// the engines are reached through this interface. The default-package
+// BenchEngines implements it; results come back as Object for JMH to consume.
+public interface Engines {
+
+    // Builds the workload every later call runs on
+    void load(int processes, double meanGap, String bursts, long seed);
+
+    Object sjfTicks(int contextSwitch);
+
+    Object sjfEvents(int contextSwitch);
+
+    Object roundRobin(int quantum, int contextSwitch);
+
+    Object priority(int contextSwitch, int agingInterval, boolean buckets);
+
+    Object ag();
+
+    static Engines create() {
+        try {
+            return (Engines) Class.forName("BenchEngines").getDeclaredConstructor().newInstance();
+        } catch (ReflectiveOperationException e) {
+            throw new IllegalStateException("BenchEngines is not on the classpath", e);
+        }
+    }
+}
@@ -0,0 +1,86 @@
+package schedbench;
+
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.util.concurrent.TimeUnit;
+
+// ======================= SCHEDULER BENCHMARK =======================
+// Throughput of every engine over process count, arrival density, burst
+// distribution and context-switch cost. main() adds the gc profiler, so each
+// result also reports the allocation rate (gc.alloc.rate.norm = bytes per run).
+//
+// Needs jmh-core and jmh-generator-annprocess 1.37 on the javac classpath
+// (the annotation processor generates the harness), compiled together with src/:
+//   javac -cp <jmh jars>:<gson jar> -d out src/*.java bench/*.java bench/schedbench/*.java
+//   java -cp out:<jmh jars>:<gson jar> schedbench.SchedulerBenchmark
+// A subset of the grid: pass JMH options, e.g.
+//   java -cp ... org.openjdk.jmh.Main SchedulerBenchmark -p processes=10000 -prof gc
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = "-Xmx4g")
+public class SchedulerBenchmark {
+
+    @Param({"100", "10000", "1000000"})
+    int processes;
+
+    // Mean ticks between arrivals: below the mean burst the queue keeps growing
+    @Param({"0.5", "10"})
+    double meanGap;
+
+    @Param({"uniform", "exponential", "pareto"})
+    String bursts;
+
+    @Param({"0", "2"})
+    int contextSwitch;
+
+    private Engines engines;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        engines = Engines.create();
+        engines.load(processes, meanGap, bursts, 42);
+    }
+
+    @Benchmark
+    public Object sjf() {
+        return engines.sjfEvents(contextSwitch);
+    }
+
+    @Benchmark
+    public Object roundRobin() {
+        return engines.roundRobin(4, contextSwitch);
+    }
+
+    @Benchmark
+    public Object priority() {
+        return engines.priority(contextSwitch, 0, false);
+    }
+
+    @Benchmark
+    public Object priorityAging() {
+        return engines.priority(contextSwitch, 5, false);
+    }
+
+    @Benchmark
+    public Object priorityAgingBuckets() {
+        return engines.priority(contextSwitch, 5, true);
+    }
+
+    @Benchmark
+    public Object ag() {
+        return engines.ag();
+    }
+
+    public static void main(String[] args) throws Exception {
+        new Runner(new OptionsBuilder()
+                .include("schedbench\\..*Benchmark")
+                .addProfiler(GCProfiler.class)
+                .build()).run();
+    }
+}
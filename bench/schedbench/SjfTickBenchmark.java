@@ -0,0 +1,43 @@
+package schedbench;
+
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+// ======================= SJF TICK BENCHMARK =======================
+// The original tick-by-tick simulateSJF scans every process on every tick, so
+// it is kept to the small sizes; run next to SchedulerBenchmark.sjf (the
+// event-driven engine) on the same parameters to compare.
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class SjfTickBenchmark {
+
+    @Param({"100", "1000", "10000"})
+    int processes;
+
+    @Param({"0.5", "10"})
+    double meanGap;
+
+    @Param({"uniform", "exponential", "pareto"})
+    String bursts;
+
+    @Param({"0", "2"})
+    int contextSwitch;
+
+    private Engines engines;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        engines = Engines.create();
+        engines.load(processes, meanGap, bursts, 42);
+    }
+
+    @Benchmark
+    public Object sjfTicks() {
+        return engines.sjfTicks(contextSwitch);
+    }
+}
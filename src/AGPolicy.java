@@ -0,0 +1,181 @@
+import java.io.*;
+import java.util.*;
+
+// ======================= AG POLICY =======================
+// AG scheduling, one tick at a time: each process runs on its own quantum,
+// FIFO until 25% of it is used, then a better priority may take over, and
+// from 50% on a shorter job may. Quanta grow when a process is preempted or
+// uses its whole quantum. Never charges a context switch.
+class AGPolicy implements SchedulingPolicy {
+
+    private final SimulationCore core;
+    private final ProcessTable workload;
+    private final AGReadyQueue readyQueue;
+    private final int[] remaining;                // the core's, by row
+
+    // Per-run state by row, set up when the row arrives. A row's quantum
+    // history is the first historySize[row] ints of history[row]; it is only
+    // boxed when the result is built.
+    final int[] quantum;
+    private final int[][] history;
+    private final int[] historySize;
+
+    private int current = -1;
+    private int timeUsedInQuantum;
+    private long priorityPreemptions, shorterPreemptions, expiries;
+
+    AGPolicy(SimulationCore core) {
+        this.core = core;
+        this.workload = core.table();
+        this.remaining = core.remainingTimes();
+        int n = workload.size();
+        quantum = new int[n];
+        history = new int[n][];
+        historySize = new int[n];
+        readyQueue = new AGReadyQueue(workload, remaining);
+    }
+
+    public void onArrival(int row) {
+        quantum[row] = workload.quantum(row);
+        history[row] = new int[4];
+        historySize[row] = 0;                     // the slot may have been used before
+        log(row, quantum[row]);
+        readyQueue.add(row);
+    }
+
+    public int select() {
+        if (current == -1) {
+            if (readyQueue.isEmpty()) return -1;
+            current = readyQueue.poll();
+            timeUsedInQuantum = 0;
+            core.record(current);
+        }
+
+        // Rows that arrive on this tick are admitted after the check, so a
+        // newcomer never preempts on the tick it arrives
+        while (true) {
+            int q = quantum[current];
+            int q25 = (int) Math.ceil(q * 0.25);
+            int q50 = q25 + (int) Math.ceil(q * 0.25);
+
+            // At exactly 25%: a better priority takes over, current keeps
+            // half its unused quantum
+            if (timeUsedInQuantum == q25) {
+                int best = readyQueue.bestPriority();
+                if (best != -1 && workload.priority(best) < workload.priority(current)) {
+                    int unused = q - timeUsedInQuantum;
+                    switchTo(best, q + (int) Math.ceil(unused / 2.0));
+                    priorityPreemptions++;
+                    continue;
+                }
+            } else if (timeUsedInQuantum >= q50) {
+                // From 50% on: a shorter job takes over, current keeps all its unused quantum
+                int shortest = readyQueue.shortestJob();
+                if (shortest != -1 && remaining[shortest] < remaining[current]) {
+                    switchTo(shortest, q + (q - timeUsedInQuantum));
+                    shorterPreemptions++;
+                    continue;
+                }
+            }
+
+            return current;
+        }
+    }
+
+    public int runLength(int row) { return 1; }
+
+    // Arrivals during the tick were admitted by the core before this
+    public void afterRun(int row) {
+        timeUsedInQuantum++;
+
+        // Used up with work left: back to the queue with 2 more
+        if (timeUsedInQuantum == quantum[current]) {
+            expiries++;
+            quantum[current] += 2;
+            log(current, quantum[current]);
+            readyQueue.add(current);
+            current = -1;
+        }
+    }
+
+    public void onComplete(int row) {
+        quantum[current] = 0;
+        log(current, 0);
+        current = -1;
+    }
+
+    // Every quantum row has had, ending with 0 once it completes
+    int[] quantumHistory(int row) {
+        return history[row] == null ? new int[0] : Arrays.copyOf(history[row], historySize[row]);
+    }
+
+    public int steal() { return readyQueue.isEmpty() ? -1 : readyQueue.poll(); }
+
+    public void metrics(RunMetrics into) {
+        into.add(RunMetrics.Counter.PREEMPT_PRIORITY, priorityPreemptions);
+        into.add(RunMetrics.Counter.PREEMPT_SHORTER, shorterPreemptions);
+        into.add(RunMetrics.Counter.QUANTUM_EXPIRIES, expiries);
+    }
+
+    public boolean checkpointable() { return true; }
+
+    // Quantum histories of rows not arrived yet are written as -1
+    public void save(DataOutput out) throws IOException {
+        Checkpoint.writeInts(out, quantum);
+        for (int r = 0; r < history.length; r++) {
+            out.writeInt(history[r] == null ? -1 : historySize[r]);
+            for (int i = 0; i < historySize[r]; i++) out.writeInt(history[r][i]);
+        }
+        out.writeInt(current);
+        out.writeInt(timeUsedInQuantum);
+        out.writeLong(priorityPreemptions);
+        out.writeLong(shorterPreemptions);
+        out.writeLong(expiries);
+        Checkpoint.writeInts(out, readyQueue.inOrder());
+    }
+
+    public void restore(DataInput in) throws IOException {
+        Checkpoint.readInts(in, quantum);
+        for (int r = 0; r < history.length; r++) {
+            int size = in.readInt();
+            if (size == -1) continue;
+            history[r] = new int[Math.max(4, size)];
+            for (int i = 0; i < size; i++) history[r][i] = in.readInt();
+            historySize[r] = size;
+        }
+        current = in.readInt();
+        timeUsedInQuantum = in.readInt();
+        priorityPreemptions = in.readLong();
+        shorterPreemptions = in.readLong();
+        expiries = in.readLong();
+        for (int row : Checkpoint.readInts(in)) readyQueue.add(row);
+    }
+
+    // Same quantum, and the history so far, so it reads as one run
+    public void adopt(int row, SchedulingPolicy from) {
+        AGPolicy other = (AGPolicy) from;
+        quantum[row] = other.quantum[row];
+        history[row] = other.history[row].clone();
+        historySize[row] = other.historySize[row];
+        readyQueue.add(row);
+    }
+
+    // --- Helpers ---
+
+    // Current goes back to the queue with newQuantum, next runs on a fresh quantum
+    private void switchTo(int next, int newQuantum) {
+        quantum[current] = newQuantum;
+        log(current, newQuantum);
+        readyQueue.add(current);
+
+        readyQueue.remove(next);
+        current = next;
+        timeUsedInQuantum = 0;
+        core.record(current);
+    }
+
+    private void log(int row, int q) {
+        if (historySize[row] == history[row].length) history[row] = Arrays.copyOf(history[row], historySize[row] * 2);
+        history[row][historySize[row]++] = q;
+    }
+}
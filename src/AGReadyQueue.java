@@ -0,0 +1,73 @@
+import java.util.*;
+
+// ======================= AG READY QUEUE =======================
+// Ready queue for AGScheduler, over workload rows. Keeps FIFO order plus a
+// priority index and a remaining-time index over the same processes, so "next
+// in line", "best priority" and "shortest job" are all O(1) to peek and
+// O(log n) to remove. Ties always go to whoever was queued first, same as
+// scanning the old deque.
+class AGReadyQueue {
+
+    private final long[] seq;     // enqueue order of each queued row
+    private long nextSeq;
+
+    private final IndexedMinHeap fifo;
+    private final IndexedMinHeap byPriority;
+    private final IndexedMinHeap byRemaining;
+
+    // remaining is the scheduler's array; a queued row's entry must not change
+    AGReadyQueue(ProcessTable w, int[] remaining) {
+        int n = w.size();
+        seq = new long[n];
+
+        fifo = new IndexedMinHeap(n, (a, b) -> Long.compare(seq[a], seq[b]));
+        byPriority = new IndexedMinHeap(n, (a, b) -> {
+            int pa = w.priority(a), pb = w.priority(b);
+            return pa != pb ? Integer.compare(pa, pb) : Long.compare(seq[a], seq[b]);
+        });
+        byRemaining = new IndexedMinHeap(n, (a, b) -> {
+            int ra = remaining[a], rb = remaining[b];
+            return ra != rb ? Integer.compare(ra, rb) : Long.compare(seq[a], seq[b]);
+        });
+    }
+
+    boolean isEmpty() { return fifo.isEmpty(); }
+    int size() { return fifo.size(); }
+
+    void add(int row) {
+        seq[row] = nextSeq++;
+        fifo.add(row);
+        byPriority.add(row);
+        byRemaining.add(row);
+    }
+
+    // Queued rows, first in line first. Adding them back in this order keeps
+    // every tie-break as it was.
+    int[] inOrder() {
+        return Arrays.stream(fifo.ids()).boxed()
+                .sorted(Comparator.comparingLong(row -> seq[row]))
+                .mapToInt(Integer::intValue).toArray();
+    }
+
+    int poll() {
+        int row = fifo.peek();
+        remove(row);
+        return row;
+    }
+
+    void remove(int row) {
+        fifo.remove(row);
+        byPriority.remove(row);
+        byRemaining.remove(row);
+    }
+
+    // Lowest priority number, or -1 when empty
+    int bestPriority() {
+        return byPriority.isEmpty() ? -1 : byPriority.peek();
+    }
+
+    // Least remaining time, or -1 when empty
+    int shortestJob() {
+        return byRemaining.isEmpty() ? -1 : byRemaining.peek();
+    }
+}
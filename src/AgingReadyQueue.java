@@ -0,0 +1,178 @@
+import java.util.*;
+
+// ======================= AGING READY QUEUE =======================
+// Ready queue for PreemptivePriorityScheduling with lazy aging.
+//
+// The old applyAging rebuilt the whole queue every tick, decrementing every
+// process whose (time - tempArrival) is a multiple of agingInterval. Here a
+// process keeps its priority as it was when queued, and the effective priority
+// is worked out from how long it has been waiting:
+//
+//     steps = (now - tempArrival) / agingInterval
+//     effective = steps == 0 ? priority : max(1, priority - steps)
+//
+// Processes queued at the same phase (tempArrival % agingInterval) age on the
+// same ticks, so they are kept together in a cohort. Inside a cohort the order
+// by effective priority never changes, except for the floor at 1, so each tick
+// only the single cohort that is due has to be touched.
+class AgingReadyQueue implements PriorityReadyQueue {
+
+    private final int agingInterval;
+    private final int[] priority;      // priority when queued, by id
+    private final int[] tempArrival;   // time queued, by id
+    private final int[] tieRank;       // order for equal effective priority, compared by difference
+    private final Map<Integer, Cohort> byPhase = new HashMap<>();
+    private final List<Cohort> cohorts = new ArrayList<>();
+    private final IndexedMinHeap top;   // non-empty cohorts, by their best process
+    private int now;
+    private int size;
+
+    // The arrays are shared with the scheduler; priority and tempArrival of an
+    // id must not change while it is queued
+    AgingReadyQueue(int agingInterval, int[] priority, int[] tempArrival, int[] tieRank) {
+        this.agingInterval = agingInterval;
+        this.priority = priority;
+        this.tempArrival = tempArrival;
+        this.tieRank = tieRank;
+        this.top = new IndexedMinHeap(8, (a, b) -> compare(cohorts.get(a).best(), cohorts.get(b).best()));
+    }
+
+    public boolean isEmpty() { return size == 0; }
+    int size() { return size; }
+
+    // Priority of id as the old per-tick aging would have left it by now
+    public int effectivePriority(int id) {
+        if (agingInterval <= 0) return priority[id];
+        int steps = (now - tempArrival[id]) / agingInterval;
+        return steps == 0 ? priority[id] : Math.max(1, priority[id] - steps);
+    }
+
+    // Replaces applyAging: called once for every tick the clock moves to
+    public boolean advance(int time) {
+        now = time;
+        if (agingInterval <= 0) return false;
+
+        Cohort due = byPhase.get(Math.floorMod(time, agingInterval));
+        if (due == null || !due.canAge()) return false;
+
+        due.age();
+        top.update(due.id);
+        return true;
+    }
+
+    public void add(int id) {
+        Cohort c = cohortOf(id);
+        boolean wasEmpty = c.isEmpty();
+        c.add(id);
+        size++;
+
+        if (wasEmpty) top.add(c.id);
+        else top.decreaseKey(c.id);
+    }
+
+    public int poll() {
+        Cohort c = cohorts.get(top.peek());
+        int id = c.poll();
+        size--;
+
+        if (c.isEmpty()) top.poll();
+        else top.update(c.id);
+        return id;
+    }
+
+    public int[] ids() {
+        int[] ids = new int[size];
+        int k = 0;
+        for (Cohort c : cohorts) k = c.copyInto(ids, k);
+        return ids;
+    }
+
+    // Each id lands in the same part of its cohort it had aged into
+    public void restore(int time, int[] ids) {
+        now = time;
+        for (int id : ids) add(id);
+    }
+
+    // --- Helpers ---
+
+    private int compare(int a, int b) {
+        int pa = effectivePriority(a), pb = effectivePriority(b);
+        if (pa != pb) return Integer.compare(pa, pb);
+        return Integer.compare(tieRank[a] - tieRank[b], 0);
+    }
+
+    private Cohort cohortOf(int id) {
+        int phase = agingInterval > 0 ? Math.floorMod(tempArrival[id], agingInterval) : 0;
+        Cohort c = byPhase.get(phase);
+        if (c == null) {
+            c = new Cohort(cohorts.size());
+            cohorts.add(c);
+            byPhase.put(phase, c);
+        }
+        return c;
+    }
+
+    private final class Cohort {
+        final int id;
+
+        // Queued with a priority below 1 and not aged yet (the first aging step lifts them to 1)
+        final IntMinHeap low = new IntMinHeap((a, b) -> priority[a] != priority[b]
+                ? Integer.compare(priority[a], priority[b])
+                : Integer.compare(tieRank[a] - tieRank[b], 0));
+        // Effective priority is at the floor of 1
+        final IntMinHeap floor = new IntMinHeap((a, b) -> Integer.compare(tieRank[a] - tieRank[b], 0));
+        // Everything else. priority + tempArrival / agingInterval differs from the
+        // effective priority by the same amount for the whole cohort, so it orders them.
+        final IntMinHeap aging = new IntMinHeap((a, b) -> key(a) != key(b)
+                ? Integer.compare(key(a), key(b))
+                : Integer.compare(tieRank[a] - tieRank[b], 0));
+
+        Cohort(int id) { this.id = id; }
+
+        boolean isEmpty() { return low.isEmpty() && floor.isEmpty() && aging.isEmpty(); }
+
+        // Anything above the floor (those at it do not change)
+        boolean canAge() { return !low.isEmpty() || !aging.isEmpty(); }
+
+        int best() {
+            if (!low.isEmpty()) return low.peek();
+            if (!floor.isEmpty()) return floor.peek();
+            return aging.peek();
+        }
+
+        int poll() {
+            if (!low.isEmpty()) return low.poll();
+            if (!floor.isEmpty()) return floor.poll();
+            return aging.poll();
+        }
+
+        void add(int id) {
+            int eff = effectivePriority(id);
+            if (eff < 1) low.add(id);
+            else if (eff == 1) floor.add(id);
+            else aging.add(id);
+        }
+
+        int copyInto(int[] into, int k) {
+            for (IntMinHeap h : new IntMinHeap[] { low, floor, aging }) {
+                int[] values = h.values();
+                System.arraycopy(values, 0, into, k, values.length);
+                k += values.length;
+            }
+            return k;
+        }
+
+        // The cohort just aged one step: move whatever reached the floor
+        void age() {
+            while (!low.isEmpty()) floor.add(low.poll());
+            while (!aging.isEmpty() && effectivePriority(aging.peek()) <= 1)
+                floor.add(aging.poll());
+        }
+
+        private int key(int id) {
+            return agingInterval > 0
+                    ? priority[id] + Math.floorDiv(tempArrival[id], agingInterval)
+                    : priority[id];
+        }
+    }
+}
@@ -0,0 +1,168 @@
+import java.io.IOException;
+import java.nio.*;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.*;
+
+// ======================= BINARY WORKLOAD =======================
+// Fixed-width workload file, loaded by memory-mapping it instead of parsing
+// JSON. Everything the Builder would work out is stored ready-made: name ids
+// already in name order and the rows sorted by arrival. Loading is then one
+// bulk copy per int column out of the mapping, with no per-process objects;
+// names are decoded from the mapping the first time they are asked for.
+//
+// Layout, little-endian, every section 4-byte aligned:
+//
+//   header    magic, version, processes n, names m, contextSwitch, rrQuantum,
+//             agingInterval, flags (bit 0: agingInterval set), title bytes, name bytes
+//   columns   arrival, burst, priority, quantum, nameId, byArrival (n ints each)
+//   names     m + 1 offsets into the name bytes, then the title and the
+//             names (UTF-8, sorted)
+//
+// Mapping limits a file to 2 GB, about 89 million processes.
+final class BinaryWorkload {
+
+    private static final int MAGIC = 0x424C5753;   // "SWLB"
+    private static final int VERSION = 1;
+    private static final int HEADER = 40;
+    private static final int COLUMNS = 6;
+    private static final int HAS_AGING = 1;
+
+    static final String EXTENSION = ".wlb";
+
+    private BinaryWorkload() {}
+
+    // Converts a test_cases_v3 JSON file (expectedOutput is left out)
+    static void convert(String jsonPath, String binaryPath) throws IOException {
+        write(WorkloadReader.read(jsonPath), binaryPath);
+    }
+
+    static void write(WorkloadFile file, String path) throws IOException {
+        Workload w = file.workload;
+        int n = w.size(), m = w.nameCount();
+        byte[] title = (file.name == null ? "" : file.name).getBytes(StandardCharsets.UTF_8);
+        byte[][] names = new byte[m][];
+        long nameBytes = 0;
+        for (int id = 0; id < m; id++) {
+            names[id] = w.nameOf(id).getBytes(StandardCharsets.UTF_8);
+            nameBytes += names[id].length;
+        }
+        long size = HEADER + 4L * (COLUMNS * (long) n + m + 1) + title.length + nameBytes;
+        if (size > Integer.MAX_VALUE) throw new IOException("workload too large to map: " + size + " bytes");
+
+        try (FileChannel ch = FileChannel.open(Paths.get(path), StandardOpenOption.CREATE,
+                StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+            MappedByteBuffer out = ch.map(FileChannel.MapMode.READ_WRITE, 0, size);
+            out.order(ByteOrder.LITTLE_ENDIAN);
+
+            out.putInt(MAGIC).putInt(VERSION).putInt(n).putInt(m);
+            out.putInt(file.contextSwitch).putInt(file.rrQuantum).putInt(file.agingOrZero());
+            out.putInt(file.agingInterval != null ? HAS_AGING : 0);
+            out.putInt(title.length).putInt((int) nameBytes);
+
+            for (int r = 0; r < n; r++) out.putInt(w.arrival(r));
+            for (int r = 0; r < n; r++) out.putInt(w.burst(r));
+            for (int r = 0; r < n; r++) out.putInt(w.priority(r));
+            for (int r = 0; r < n; r++) out.putInt(w.quantum(r));
+            for (int r = 0; r < n; r++) out.putInt(w.nameId(r));
+            for (int row : w.byArrival()) out.putInt(row);
+
+            int offset = 0;
+            for (byte[] name : names) {
+                out.putInt(offset);
+                offset += name.length;
+            }
+            out.putInt(offset);
+            out.put(title);
+            for (byte[] name : names) out.put(name);
+            out.force();
+        }
+    }
+
+    // expectedOutput is null: the format only carries the run
+    static WorkloadFile map(String path) throws IOException {
+        MappedByteBuffer in;
+        try (FileChannel ch = FileChannel.open(Paths.get(path), StandardOpenOption.READ)) {
+            if (ch.size() > Integer.MAX_VALUE) throw new IOException(path + " is too large to map");
+            in = ch.map(FileChannel.MapMode.READ_ONLY, 0, ch.size());   // stays valid after close
+        }
+        in.order(ByteOrder.LITTLE_ENDIAN);
+
+        if (in.capacity() < HEADER || in.getInt(0) != MAGIC) throw new IOException(path + " is not a binary workload");
+        int version = in.getInt(4);
+        if (version != VERSION) throw new IOException(path + " has format " + version + ", expected " + VERSION);
+        int n = in.getInt(8), m = in.getInt(12);
+        int titleBytes = in.getInt(32), nameBytes = in.getInt(36);
+        if (n < 0 || m < 0 || titleBytes < 0 || nameBytes < 0)
+            throw new IOException(path + " has a negative count in its header");
+        long size = HEADER + 4L * (COLUMNS * (long) n + m + 1) + titleBytes + nameBytes;
+        if (size != in.capacity())
+            throw new IOException(path + " is " + in.capacity() + " bytes, its header says " + size);
+
+        IntBuffer ints = in.position(HEADER).slice().order(ByteOrder.LITTLE_ENDIAN).asIntBuffer();
+        int[] arrival = column(ints, n), burst = column(ints, n), priority = column(ints, n);
+        int[] quantum = column(ints, n), nameId = column(ints, n), byArrival = column(ints, n);
+        int offsets = HEADER + 4 * COLUMNS * n;
+        int text = offsets + 4 * (m + 1) + titleBytes;
+        check(path, in, n, m, nameBytes, arrival, nameId, byArrival, offsets);
+
+        WorkloadFile file = new WorkloadFile();
+        file.name = titleBytes == 0 ? null : utf8(in, text - titleBytes, titleBytes);
+        file.contextSwitch = in.getInt(16);
+        file.rrQuantum = in.getInt(20);
+        file.agingInterval = (in.getInt(28) & HAS_AGING) != 0 ? in.getInt(24) : null;
+        file.workload = Workload.ofColumns(arrival, burst, priority, quantum, nameId, byArrival, m, id -> {
+            int from = in.getInt(offsets + 4 * id), to = in.getInt(offsets + 4 * (id + 1));
+            return utf8(in, text + from, to - from);
+        });
+        return file;
+    }
+
+    // --- Helpers ---
+
+    // Everything the schedulers index with, checked once so a corrupt file
+    // fails here rather than deep inside a run: name ids in [0, m), byArrival
+    // a permutation sorted by (arrival, row), name offsets rising from 0 to
+    // the end of the name bytes
+    private static void check(String path, ByteBuffer in, int n, int m, int nameBytes,
+                              int[] arrival, int[] nameId, int[] byArrival, int offsets) throws IOException {
+        for (int r = 0; r < n; r++)
+            if (nameId[r] < 0 || nameId[r] >= m)
+                throw new IOException(path + ": row " + r + " has name id " + nameId[r] + " of " + m);
+
+        boolean[] seen = new boolean[n];
+        for (int k = 0; k < n; k++) {
+            int row = byArrival[k];
+            if (row < 0 || row >= n || seen[row])
+                throw new IOException(path + ": arrival order is not a permutation at " + k);
+            seen[row] = true;
+            if (k > 0) {
+                int prev = byArrival[k - 1];
+                if (arrival[prev] > arrival[row] || (arrival[prev] == arrival[row] && prev > row))
+                    throw new IOException(path + ": arrival order is not sorted at " + k);
+            }
+        }
+
+        int previous = 0;
+        for (int id = 0; id <= m; id++) {
+            int offset = in.getInt(offsets + 4 * id);
+            if ((id == 0 && offset != 0) || offset < previous || offset > nameBytes)
+                throw new IOException(path + ": name offset " + id + " is out of place");
+            previous = offset;
+        }
+        if (previous != nameBytes) throw new IOException(path + ": name offsets end at " + previous + ", not " + nameBytes);
+    }
+
+    private static int[] column(IntBuffer ints, int n) {
+        int[] column = new int[n];
+        ints.get(column);
+        return column;
+    }
+
+    // Absolute read, safe from several threads
+    private static String utf8(ByteBuffer in, int at, int length) {
+        byte[] bytes = new byte[length];
+        in.get(at, bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+}
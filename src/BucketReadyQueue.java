@@ -0,0 +1,141 @@
+import java.util.*;
+
+// ======================= BUCKET READY QUEUE =======================
+// Calendar-style ready queue for small integer priorities, in the spirit of the
+// Linux O(1) scheduler: one bucket per priority value plus a bitmap of the
+// non-empty buckets, so the best bucket is found with a few word scans.
+//
+// Aging is applied eagerly like the original applyAging, but only to the
+// processes that are actually due this tick and not already at the floor of 1.
+// Since priorities are small, each process moves down only a few buckets per
+// stay in the queue. Within a bucket the order is the tie rank (arrival, then name).
+class BucketReadyQueue implements PriorityReadyQueue {
+
+    private final int agingInterval;
+    private final int[] priority;       // current priority by id, aged in place
+    private final int[] tempArrival;
+    private final int lowest;           // priority stored in bucket 0
+    private final IndexedMinHeap[] buckets;
+    private final long[] bitmap;        // bit b set <=> buckets[b] not empty
+    // Ids above the floor, grouped by tempArrival % agingInterval (they age together)
+    private final Map<Integer, Members> dueAt = new HashMap<>();
+    private final int[] memberSlot;
+    private int size;
+
+    BucketReadyQueue(int minPriority, int maxPriority, int agingInterval,
+                     int[] priority, int[] tempArrival, int[] tieRank) {
+        this.agingInterval = agingInterval;
+        this.priority = priority;
+        this.tempArrival = tempArrival;
+        this.lowest = Math.min(minPriority, 1);   // aging lifts anything below 1 up to 1
+
+        int n = priority.length;
+        int[] sharedPos = new int[n];
+        Arrays.fill(sharedPos, -1);
+        int count = Math.max(maxPriority, 1) - lowest + 1;
+        this.buckets = new IndexedMinHeap[count];
+        for (int b = 0; b < count; b++)
+            buckets[b] = new IndexedMinHeap(sharedPos, (x, y) -> Integer.compare(tieRank[x] - tieRank[y], 0));
+        this.bitmap = new long[(count + 63) >>> 6];
+        this.memberSlot = new int[n];
+    }
+
+    public boolean isEmpty() { return size == 0; }
+
+    public int effectivePriority(int id) { return priority[id]; }
+
+    public void add(int id) {
+        int b = priority[id] - lowest;
+        if (b < 0 || b >= buckets.length)
+            throw new IllegalArgumentException("priority " + priority[id] + " is out of range");
+
+        insert(id, b);
+        if (agingInterval > 0 && priority[id] != 1)
+            dueAt.computeIfAbsent(phase(tempArrival[id]), k -> new Members()).add(id);
+        size++;
+    }
+
+    public int poll() {
+        int b = firstBucket();
+        int id = buckets[b].poll();
+        if (buckets[b].isEmpty()) bitmap[b >>> 6] &= ~(1L << b);
+
+        if (agingInterval > 0 && priority[id] != 1) dueAt.get(phase(tempArrival[id])).remove(id);
+        size--;
+        return id;
+    }
+
+    public boolean advance(int time) {
+        if (agingInterval <= 0) return false;
+
+        Members due = dueAt.get(phase(time));
+        if (due == null || due.size == 0) return false;
+
+        // Walk backwards so removing the current member does not skip anyone
+        for (int i = due.size - 1; i >= 0; i--) {
+            int id = due.ids[i];
+            remove(id, priority[id] - lowest);
+            priority[id] = Math.max(1, priority[id] - 1);
+            insert(id, priority[id] - lowest);
+            if (priority[id] == 1) due.remove(id);
+        }
+        return true;
+    }
+
+    public int[] ids() {
+        int[] ids = new int[size];
+        int k = 0;
+        for (IndexedMinHeap bucket : buckets) {
+            int[] b = bucket.ids();
+            System.arraycopy(b, 0, ids, k, b.length);
+            k += b.length;
+        }
+        return ids;
+    }
+
+    // Priorities are stored already aged, so the ids just go back in
+    public void restore(int time, int[] ids) {
+        for (int id : ids) add(id);
+    }
+
+    // --- Helpers ---
+
+    private int phase(int time) {
+        return Math.floorMod(time, agingInterval);
+    }
+
+    private void insert(int id, int b) {
+        buckets[b].add(id);
+        bitmap[b >>> 6] |= 1L << b;
+    }
+
+    private void remove(int id, int b) {
+        buckets[b].remove(id);
+        if (buckets[b].isEmpty()) bitmap[b >>> 6] &= ~(1L << b);
+    }
+
+    private int firstBucket() {
+        for (int w = 0; w < bitmap.length; w++)
+            if (bitmap[w] != 0) return (w << 6) + Long.numberOfTrailingZeros(bitmap[w]);
+        throw new IllegalStateException("ready queue is empty");
+    }
+
+    // Unordered id set with O(1) add / remove (swap with the last member)
+    private final class Members {
+        int[] ids = new int[4];
+        int size;
+
+        void add(int id) {
+            if (size == ids.length) ids = Arrays.copyOf(ids, size * 2);
+            memberSlot[id] = size;
+            ids[size++] = id;
+        }
+
+        void remove(int id) {
+            int slot = memberSlot[id];
+            int last = ids[--size];
+            ids[slot] = last;
+            memberSlot[last] = slot;
+        }
+    }
+}
@@ -0,0 +1,138 @@
+import java.io.*;
+import java.nio.file.*;
+
+// ======================= CHECKPOINT =======================
+// Binary snapshot of a batch run stopped between two advance() calls: the
+// core's clock, phase and per-row arrays, then the policy's own state (ready
+// queue order, aged priorities, AG quanta and time used in the quantum).
+// Restored into a fresh core over the same workload with a policy of the same
+// kind and settings, the run carries on exactly as if it had never stopped.
+//
+// Layout: magic, format version, workload fingerprint, policy class name, then
+// the core and the policy, all big-endian through DataOutput. Ready queues are
+// written as plain id lists; every queue orders its ids completely, so
+// re-adding them gives the same choices whatever the heap layout was.
+//
+// The trace is not part of the snapshot, so it does not grow with the number
+// of dispatches: a checkpointed run must send it to a timeline sink, and
+// resume with a sink that holds the slices so far, or one that only wants
+// the rest. The policy must be checkpointable(); both are checked before
+// anything is written or read.
+final class Checkpoint {
+
+    private static final int MAGIC = 0x53434B50;   // "SCKP"
+    private static final int VERSION = 4;
+
+    private Checkpoint() {}
+
+    static void save(SimulationCore core, Workload w, DataOutput out) throws IOException {
+        check(core);
+        out.writeInt(MAGIC);
+        out.writeInt(VERSION);
+        out.writeLong(fingerprint(w));
+        out.writeUTF(core.policy().getClass().getName());
+        core.save(out);
+    }
+
+    // core is fresh, over w, with its policy attached
+    static void restore(SimulationCore core, Workload w, DataInput in) throws IOException {
+        check(core);
+        if (in.readInt() != MAGIC) throw new IOException("not a scheduler checkpoint");
+        int version = in.readInt();
+        if (version != VERSION) throw new IOException("checkpoint format " + version + ", expected " + VERSION);
+        if (in.readLong() != fingerprint(w)) throw new IOException("checkpoint is for another workload");
+        String policy = in.readUTF();
+        if (!policy.equals(core.policy().getClass().getName()))
+            throw new IOException("checkpoint is for " + policy + ", not " + core.policy().getClass().getName());
+        core.restore(in);
+    }
+
+    // Replaces file in one move, so a crash while writing leaves the last one intact
+    static void write(SimulationCore core, Workload w, Path file) throws IOException {
+        check(core);
+        Path tmp = file.resolveSibling(file.getFileName() + ".tmp");
+        try (DataOutputStream out = new DataOutputStream(
+                new BufferedOutputStream(Files.newOutputStream(tmp), 1 << 16))) {
+            save(core, w, out);
+        }
+        Files.move(tmp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    static void read(SimulationCore core, Workload w, Path file) throws IOException {
+        try (DataInputStream in = new DataInputStream(
+                new BufferedInputStream(Files.newInputStream(file), 1 << 16))) {
+            restore(core, w, in);
+        }
+    }
+
+    // Runs core (policy attached) to the end, writing a checkpoint to file every
+    // interval ticks of simulated time. Resumes from file if there is one.
+    static void run(SimulationCore core, Workload w, int interval, Path file) throws IOException {
+        if (interval <= 0) throw new IllegalArgumentException("interval must be positive, got " + interval);
+        check(core);
+        if (Files.exists(file)) read(core, w, file);
+
+        long limit = core.time();
+        while (!core.finished()) {
+            limit = Math.min(limit + interval, Integer.MAX_VALUE);
+            core.advance((int) limit);
+            write(core, w, file);
+        }
+        MetricsRegistry.recordRun(core);
+    }
+
+    // --- For SimulationCore and the policies ---
+
+    static void writeInts(DataOutput out, int[] a, int length) throws IOException {
+        out.writeInt(length);
+        for (int i = 0; i < length; i++) out.writeInt(a[i]);
+    }
+
+    static void writeInts(DataOutput out, int[] a) throws IOException {
+        writeInts(out, a, a.length);
+    }
+
+    static int[] readInts(DataInput in) throws IOException {
+        int[] a = new int[in.readInt()];
+        for (int i = 0; i < a.length; i++) a[i] = in.readInt();
+        return a;
+    }
+
+    // Into an array of the size it was saved from
+    static void readInts(DataInput in, int[] into) throws IOException {
+        int length = in.readInt();
+        if (length != into.length) throw new IOException("saved " + length + " rows, this run has " + into.length);
+        for (int i = 0; i < length; i++) into[i] = in.readInt();
+    }
+
+    // A saved setting must match the one this run was built with
+    static void expect(String what, int saved, int actual) throws IOException {
+        if (saved != actual) throw new IOException("checkpoint has " + what + " " + saved + ", this run " + actual);
+    }
+
+    // --- Helpers ---
+
+    private static void check(SimulationCore core) throws IOException {
+        if (core.sink() == null)
+            throw new IOException("a checkpointed run needs a timeline sink, the execution order is not saved");
+        if (!core.policy().checkpointable())
+            throw new IOException(core.policy().getClass().getName() + " cannot be checkpointed");
+    }
+
+    private static long fingerprint(Workload w) {
+        long h = 0xcbf29ce484222325L;
+        h = mix(h, w.size());
+        for (int r = 0; r < w.size(); r++) {
+            h = mix(h, w.arrival(r));
+            h = mix(h, w.burst(r));
+            h = mix(h, w.priority(r));
+            h = mix(h, w.quantum(r));
+            h = mix(h, w.name(r).hashCode());
+        }
+        return h;
+    }
+
+    private static long mix(long h, int v) {
+        return (h ^ v) * 0x100000001b3L;
+    }
+}
@@ -0,0 +1,96 @@
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.*;
+import java.util.concurrent.*;
+
+// ======================= COMPARISON RUNNER =======================
+// Runs every (workload, algorithm) pair on a bounded thread pool. Workloads
+// are read-only and each engine keeps its state in its own arrays, so the
+// pairs share nothing and need no locking. Results are collected by index, not
+// by completion, so the output is the same as a serial run in the same order.
+// With a ResultCache, pairs seen before are answered from it.
+final class ComparisonRunner implements AutoCloseable {
+
+    enum Algorithm { SJF, RR, PRIORITY, AG }
+
+    private final ExecutorService pool;
+    private ResultCache cache;                // null: always simulate
+
+    ComparisonRunner() {
+        this(Runtime.getRuntime().availableProcessors());
+    }
+
+    ComparisonRunner(int threads) {
+        pool = Executors.newFixedThreadPool(Math.max(1, threads), r -> {
+            Thread t = new Thread(r, "comparison");
+            t.setDaemon(true);
+            return t;
+        });
+    }
+
+    ComparisonRunner cache(ResultCache cache) { this.cache = cache; return this; }
+
+    // Parsed (or, for binary workloads, mapped) files in the same order as paths
+    List<WorkloadFile> readAll(List<String> paths) {
+        List<Future<WorkloadFile>> futures = new ArrayList<>(paths.size());
+        for (String path : paths)
+            futures.add(pool.submit(() -> path.endsWith(BinaryWorkload.EXTENSION)
+                    ? BinaryWorkload.map(path) : WorkloadReader.read(path)));
+
+        List<WorkloadFile> files = new ArrayList<>(paths.size());
+        for (Future<WorkloadFile> f : futures) files.add(join(f));
+        return files;
+    }
+
+    // results[f][a] is algorithms[a] run on files[f]
+    SJFResult[][] run(List<WorkloadFile> files, Algorithm... algorithms) {
+        List<Future<SJFResult>> futures = new ArrayList<>(files.size() * algorithms.length);
+        for (WorkloadFile file : files)
+            for (Algorithm a : algorithms)
+                futures.add(pool.submit(() -> cache != null ? cache.simulate(file, a) : simulate(file, a)));
+
+        SJFResult[][] results = new SJFResult[files.size()][algorithms.length];
+        int next = 0;
+        for (int f = 0; f < files.size(); f++)
+            for (int a = 0; a < algorithms.length; a++)
+                results[f][a] = join(futures.get(next++));
+        return results;
+    }
+
+    static SJFResult simulate(WorkloadFile file, Algorithm algorithm) {
+        Workload w = file.workload;
+        switch (algorithm) {
+            case SJF:
+                return PreemptiveSJF.simulateSJFEvents(w, file.contextSwitch);
+            case RR:
+                return RoundRobin.simulateRR(w, file.rrQuantum, file.contextSwitch);
+            case PRIORITY:
+                return PreemptivePriority.simulatePriority(w, file.contextSwitch, file.agingOrZero());
+            case AG:
+                return new AGScheduler(w).simulate();
+            default:
+                throw new IllegalArgumentException("unknown algorithm " + algorithm);
+        }
+    }
+
+    public void close() {
+        pool.shutdownNow();
+    }
+
+    // Rethrows the task's own exception instead of an ExecutionException
+    // (checked IO failures as UncheckedIOException)
+    static <T> T join(Future<T> future) {
+        try {
+            return future.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new CancellationException("interrupted while waiting for results");
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof IOException) throw new UncheckedIOException((IOException) cause);
+            if (cause instanceof RuntimeException) throw (RuntimeException) cause;
+            if (cause instanceof Error) throw (Error) cause;
+            throw new IllegalStateException(cause);
+        }
+    }
+}
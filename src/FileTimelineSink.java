@@ -0,0 +1,70 @@
+import java.io.*;
+
+// ======================= FILE TIMELINE SINK =======================
+// Streams the timeline to disk so the trace never has to fit in the heap.
+// Touching slices of the same process are merged before they are written, and
+// each entry is three ints (pid, start, end) through a 64K buffer. Read the
+// file back with replay().
+class FileTimelineSink implements TimelineSink, Closeable {
+
+    private final DataOutputStream out;
+    private int pid = -1, start, end;   // entry not written yet, pid -1 = none
+    private long written;
+
+    FileTimelineSink(String path) throws IOException {
+        out = new DataOutputStream(new BufferedOutputStream(new FileOutputStream(path), 1 << 16));
+    }
+
+    public void slice(int p, int s, int e) {
+        if (e <= s) return;
+        if (p == pid && s == end) {
+            end = e;
+            return;
+        }
+        flushEntry();
+        pid = p;
+        start = s;
+        end = e;
+    }
+
+    // Entries on disk so far (the pending one is counted once it is written)
+    long entries() { return written; }
+
+    public void close() throws IOException {
+        try {
+            flushEntry();
+        } finally {
+            out.close();
+        }
+    }
+
+    static void replay(String path, TimelineSink into) throws IOException {
+        try (DataInputStream in = new DataInputStream(
+                new BufferedInputStream(new FileInputStream(path), 1 << 16))) {
+            while (true) {
+                int p;
+                try {
+                    p = in.readInt();
+                } catch (EOFException eof) {
+                    return;
+                }
+                into.slice(p, in.readInt(), in.readInt());
+            }
+        }
+    }
+
+    // --- Helpers ---
+
+    private void flushEntry() {
+        if (pid == -1) return;
+        try {
+            out.writeInt(pid);
+            out.writeInt(start);
+            out.writeInt(end);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        written++;
+        pid = -1;
+    }
+}
@@ -0,0 +1,136 @@
+import java.util.Arrays;
+
+// ======================= INDEXED MIN HEAP =======================
+// Binary min-heap over dense int ids (e.g. a process index). It remembers the
+// heap slot of every id, so besides add / poll it can re-sift or remove any id
+// in O(log n). Ordering (including the tie-break) comes from the comparator.
+class IndexedMinHeap {
+
+    interface IdComparator {
+        int compare(int a, int b);
+    }
+
+    private final IdComparator cmp;
+    private int[] heap;   // slot -> id
+    private int[] pos;    // id -> slot, -1 if not in the heap
+    private int size;
+    private boolean shared;
+
+    IndexedMinHeap(int capacity, IdComparator cmp) {
+        this.cmp = cmp;
+        this.heap = new int[Math.max(1, capacity)];
+        this.pos = new int[Math.max(1, capacity)];
+        Arrays.fill(pos, -1);
+    }
+
+    // Several heaps may share one position array (filled with -1 by the owner)
+    // as long as each id sits in at most one of them at a time, e.g. one heap
+    // per priority bucket. contains() then means "in one of the heaps".
+    IndexedMinHeap(int[] sharedPos, IdComparator cmp) {
+        this.cmp = cmp;
+        this.heap = new int[4];
+        this.pos = sharedPos;
+        this.shared = true;
+    }
+
+    int size() { return size; }
+    boolean isEmpty() { return size == 0; }
+    boolean contains(int id) { return id < pos.length && pos[id] >= 0; }
+
+    int peek() {
+        if (size == 0) throw new IllegalStateException("heap is empty");
+        return heap[0];
+    }
+
+    void add(int id) {
+        if (id >= pos.length) growIds(id + 1);
+        if (pos[id] >= 0) throw new IllegalStateException("id " + id + " already in heap");
+        if (size == heap.length) heap = Arrays.copyOf(heap, size * 2);
+        heap[size] = id;
+        pos[id] = size;
+        siftUp(size++);
+    }
+
+    int poll() {
+        int top = peek();
+        removeAt(0);
+        return top;
+    }
+
+    void remove(int id) {
+        if (!contains(id)) return;
+        removeAt(pos[id]);
+    }
+
+    // Key of id became smaller (or equal): only needs to move towards the root
+    void decreaseKey(int id) {
+        siftUp(pos[id]);
+    }
+
+    // Key of id changed in an unknown direction
+    void update(int id) {
+        int slot = pos[id];
+        siftUp(slot);
+        if (pos[id] == slot) siftDown(slot);
+    }
+
+    // Ids in the heap, in no particular order
+    int[] ids() { return Arrays.copyOf(heap, size); }
+
+    void clear() {
+        for (int i = 0; i < size; i++) pos[heap[i]] = -1;
+        size = 0;
+    }
+
+    // --- Helpers ---
+
+    private void removeAt(int slot) {
+        int id = heap[slot];
+        pos[id] = -1;
+        size--;
+        if (slot == size) return;
+
+        int moved = heap[size];
+        heap[slot] = moved;
+        pos[moved] = slot;
+        siftUp(slot);
+        if (pos[moved] == slot) siftDown(slot);
+    }
+
+    private void siftUp(int slot) {
+        int id = heap[slot];
+        while (slot > 0) {
+            int parent = (slot - 1) >>> 1;
+            int p = heap[parent];
+            if (cmp.compare(id, p) >= 0) break;
+            heap[slot] = p;
+            pos[p] = slot;
+            slot = parent;
+        }
+        heap[slot] = id;
+        pos[id] = slot;
+    }
+
+    private void siftDown(int slot) {
+        int id = heap[slot];
+        int half = size >>> 1;
+        while (slot < half) {
+            int child = 2 * slot + 1;
+            int right = child + 1;
+            if (right < size && cmp.compare(heap[right], heap[child]) < 0) child = right;
+            if (cmp.compare(id, heap[child]) <= 0) break;
+            heap[slot] = heap[child];
+            pos[heap[slot]] = slot;
+            slot = child;
+        }
+        heap[slot] = id;
+        pos[id] = slot;
+    }
+
+    private void growIds(int min) {
+        if (shared) throw new IllegalArgumentException("id " + (min - 1) + " outside the shared position array");
+        int old = pos.length;
+        pos = Arrays.copyOf(pos, Math.max(min, old * 2));
+        Arrays.fill(pos, old, pos.length, -1);
+    }
+}
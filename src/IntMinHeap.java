@@ -0,0 +1,52 @@
+import java.util.Arrays;
+
+// ======================= INT MIN HEAP =======================
+// Plain binary min-heap of ints ordered by a comparator. No position index, so
+// it only supports add / peek / poll, but costs a single growing int[].
+class IntMinHeap {
+    private final IndexedMinHeap.IdComparator cmp;
+    private int[] heap = new int[8];
+    private int size;
+
+    IntMinHeap(IndexedMinHeap.IdComparator cmp) {
+        this.cmp = cmp;
+    }
+
+    int size() { return size; }
+    boolean isEmpty() { return size == 0; }
+
+    // Values in the heap, in no particular order
+    int[] values() { return Arrays.copyOf(heap, size); }
+
+    int peek() {
+        if (size == 0) throw new IllegalStateException("heap is empty");
+        return heap[0];
+    }
+
+    void add(int v) {
+        if (size == heap.length) heap = Arrays.copyOf(heap, size * 2);
+        int slot = size++;
+        while (slot > 0) {
+            int parent = (slot - 1) >>> 1;
+            if (cmp.compare(v, heap[parent]) >= 0) break;
+            heap[slot] = heap[parent];
+            slot = parent;
+        }
+        heap[slot] = v;
+    }
+
+    int poll() {
+        int top = peek();
+        int last = heap[--size];
+        int slot = 0, half = size >>> 1;
+        while (slot < half) {
+            int child = 2 * slot + 1;
+            if (child + 1 < size && cmp.compare(heap[child + 1], heap[child]) < 0) child++;
+            if (cmp.compare(last, heap[child]) <= 0) break;
+            heap[slot] = heap[child];
+            slot = child;
+        }
+        if (size > 0) heap[slot] = last;
+        return top;
+    }
+}
@@ -0,0 +1,41 @@
+// ======================= INT RING BUFFER =======================
+// Fixed-capacity FIFO of ints (process indices). Unlike a LinkedList queue it
+// allocates nothing per add, which matters when processes are re-queued millions of times.
+class IntRingBuffer {
+    private final int[] items;
+    private int head, size;
+
+    IntRingBuffer(int capacity) {
+        items = new int[Math.max(1, capacity)];
+    }
+
+    int size() { return size; }
+    boolean isEmpty() { return size == 0; }
+
+    void add(int v) {
+        if (size == items.length) throw new IllegalStateException("ring buffer is full");
+        int tail = head + size;
+        if (tail >= items.length) tail -= items.length;
+        items[tail] = v;
+        size++;
+    }
+
+    // i-th value from the head
+    int get(int i) {
+        if (i < 0 || i >= size) throw new IndexOutOfBoundsException(i);
+        int slot = head + i;
+        return items[slot >= items.length ? slot - items.length : slot];
+    }
+
+    int peek() {
+        if (size == 0) throw new IllegalStateException("ring buffer is empty");
+        return items[head];
+    }
+
+    int poll() {
+        int v = peek();
+        if (++head == items.length) head = 0;
+        size--;
+        return v;
+    }
+}
@@ -2,26 +2,51 @@ import com.google.gson.Gson;
 import org.junit.jupiter.api.DynamicTest;
 import org.junit.jupiter.api.TestFactory;
 
-import java.io.FileReader;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.io.StringReader;
+import java.io.StringWriter;
+import java.io.UncheckedIOException;
+import java.lang.management.ManagementFactory;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.SplittableRandom;
+import java.util.function.Function;
+import java.util.stream.Collectors;
 import java.util.stream.IntStream;
 import java.util.stream.Stream;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
 
 import static org.junit.jupiter.api.Assertions.*;
 
 public class JsonBasedSchedulerTest {
 
-    private final Gson gson = new Gson();
+    private static final Gson GSON = new Gson();
+
+    // Fixtures are parsed once for the whole class, into the shared cache
+    private static final WorkloadCache FILES = new WorkloadCache();
 
     // ====================== SJF TESTS ======================
     @TestFactory
     Stream<DynamicTest> sjfTests() {
-        return IntStream.rangeClosed(1, 6).mapToObj(i ->
-                DynamicTest.dynamicTest("SJF test_" + i, () -> {
+        return fixtures("Other_Schedulers").map(path ->
+                DynamicTest.dynamicTest("SJF " + path.getFileName(), () -> {
 
-                    TestFile tf = load(
-                            "test_cases_v3/Other_Schedulers/test_" + i + ".json"
-                    );
+                    TestFile tf = load(path);
 
                     ArrayList<Process> processes =
                             Main.buildProcesses(tf.input.processes);
@@ -53,15 +78,32 @@ public class JsonBasedSchedulerTest {
         );
     }
 
+    // ====================== SJF (EVENT-DRIVEN) TESTS ======================
+    @TestFactory
+    Stream<DynamicTest> sjfEventTests() {
+        return fixtures("Other_Schedulers").map(path ->
+                DynamicTest.dynamicTest("SJF events " + path.getFileName(), () -> {
+
+                    TestFile tf = load(path);
+
+                    SJFResult actual =
+                            PreemptiveSJF.simulateSJFEvents(
+                                    Main.buildProcesses(tf.input.processes),
+                                    tf.input.contextSwitch
+                            );
+
+                    assertResult(tf.expectedOutput.SJF, actual);
+                })
+        );
+    }
+
     // ====================== PRIORITY TESTS ======================
     @TestFactory
     Stream<DynamicTest> priorityTests() {
-        return IntStream.rangeClosed(1, 6).mapToObj(i ->
-                DynamicTest.dynamicTest("PRIORITY test_" + i, () -> {
+        return fixtures("Other_Schedulers").map(path ->
+                DynamicTest.dynamicTest("PRIORITY " + path.getFileName(), () -> {
 
-                    TestFile tf = load(
-                            "test_cases_v3/Other_Schedulers/test_" + i + ".json"
-                    );
+                    TestFile tf = load(path);
 
                     if (tf.expectedOutput.Priority == null)
                         return; // skip tests without priority output
@@ -101,15 +143,49 @@ public class JsonBasedSchedulerTest {
         );
     }
 
+    // ====================== PRIORITY (BUCKET QUEUE) TESTS ======================
+    @TestFactory
+    Stream<DynamicTest> priorityBucketTests() {
+        return fixtures("Other_Schedulers").map(path ->
+                DynamicTest.dynamicTest("PRIORITY buckets " + path.getFileName(), () -> {
+
+                    TestFile tf = load(path);
+
+                    if (tf.expectedOutput.Priority == null)
+                        return;
+
+                    int aging = tf.input.agingInterval != null
+                            ? tf.input.agingInterval
+                            : 0;
+
+                    SJFResult bucket =
+                            PreemptivePriority.simulatePriority(
+                                    Main.buildProcesses(tf.input.processes),
+                                    tf.input.contextSwitch,
+                                    aging,
+                                    PreemptivePriorityScheduling.QueueBackend.BUCKETS
+                            );
+                    SJFResult heap =
+                            PreemptivePriority.simulatePriority(
+                                    Main.buildProcesses(tf.input.processes),
+                                    tf.input.contextSwitch,
+                                    aging
+                            );
+
+                    // Both backends must make exactly the same decisions
+                    assertEquals(tf.expectedOutput.Priority.executionOrder, bucket.executionOrder);
+                    assertSameResult(heap, bucket);
+                })
+        );
+    }
+
     // ====================== ROUND ROBIN TESTS ======================
     @TestFactory
     Stream<DynamicTest> rrTests() {
-        return IntStream.rangeClosed(1, 6).mapToObj(i ->
-                DynamicTest.dynamicTest("RR test_" + i, () -> {
+        return fixtures("Other_Schedulers").map(path ->
+                DynamicTest.dynamicTest("RR " + path.getFileName(), () -> {
 
-                    TestFile tf = load(
-                            "test_cases_v3/Other_Schedulers/test_" + i + ".json"
-                    );
+                    TestFile tf = load(path);
 
                     ArrayList<Process> processes =
                             Main.buildProcesses(tf.input.processes);
@@ -145,12 +221,10 @@ public class JsonBasedSchedulerTest {
     // ====================== AG TESTS ======================
     @TestFactory
     Stream<DynamicTest> agTests() {
-        return IntStream.rangeClosed(1, 6).mapToObj(i ->
-                DynamicTest.dynamicTest("AG test_" + i, () -> {
+        return fixtures("AG").map(path ->
+                DynamicTest.dynamicTest("AG " + path.getFileName(), () -> {
 
-                    TestFile tf = load(
-                            "test_cases_v3/AG/AG_test" + i + ".json"
-                    );
+                    TestFile tf = load(path);
 
                     ArrayList<AGProcess> processes =
                             Main.buildAGProcesses(tf.input.processes);
@@ -190,11 +264,1252 @@ public class JsonBasedSchedulerTest {
         );
     }
 
+    // ====================== SHARED WORKLOAD TESTS ======================
+    @TestFactory
+    Stream<DynamicTest> workloadReuseTests() {
+        return fixtures("Other_Schedulers").map(path ->
+                DynamicTest.dynamicTest("Workload reuse " + path.getFileName(), () -> {
+
+                    TestFile tf = load(path);
+
+                    // Schedulers keep their state outside the workload, so
+                    // running twice from the same table gives the same result
+                    Workload w = Workload.fromInputs(tf.input.processes);
+                    int aging = tf.input.agingInterval != null
+                            ? tf.input.agingInterval
+                            : 0;
+
+                    assertResult(tf.expectedOutput.SJF,
+                            PreemptiveSJF.simulateSJFEvents(w, tf.input.contextSwitch));
+                    assertResult(tf.expectedOutput.SJF,
+                            PreemptiveSJF.simulateSJFEvents(w, tf.input.contextSwitch));
+                    assertResult(tf.expectedOutput.RR,
+                            RoundRobin.simulateRR(w, tf.input.rrQuantum, tf.input.contextSwitch));
+                    assertResult(tf.expectedOutput.RR,
+                            RoundRobin.simulateRR(w, tf.input.rrQuantum, tf.input.contextSwitch));
+                    assertSameResult(
+                            PreemptivePriority.simulatePriority(w, tf.input.contextSwitch, aging),
+                            PreemptivePriority.simulatePriority(w, tf.input.contextSwitch, aging));
+                    assertSameResult(
+                            new AGScheduler(w).simulate(),
+                            new AGScheduler(w).simulate());
+                })
+        );
+    }
+
+    // ====================== STREAMING READER TESTS ======================
+    @TestFactory
+    Stream<DynamicTest> streamingReaderTests() {
+        return fixtures("Other_Schedulers").map(path ->
+                DynamicTest.dynamicTest("Streaming reader " + path.getFileName(), () -> {
+
+                    TestFile tf = load(path);
+                    WorkloadFile wf = cached(path);
+
+                    // Same table and parameters as the Gson object binding
+                    Workload expected = Workload.fromInputs(tf.input.processes);
+                    assertEquals(expected.size(), wf.workload.size());
+                    for (int r = 0; r < expected.size(); r++) {
+                        assertEquals(expected.name(r), wf.workload.name(r));
+                        assertEquals(expected.arrival(r), wf.workload.arrival(r));
+                        assertEquals(expected.burst(r), wf.workload.burst(r));
+                        assertEquals(expected.priority(r), wf.workload.priority(r));
+                    }
+                    assertEquals(tf.input.contextSwitch, wf.contextSwitch);
+                    assertEquals(tf.input.rrQuantum, wf.rrQuantum);
+                    assertEquals(tf.input.agingInterval, wf.agingInterval);
+
+                    assertResult(wf.expectedOutput.SJF,
+                            PreemptiveSJF.simulateSJF(wf.workload, wf.contextSwitch));
+                    assertResult(wf.expectedOutput.RR,
+                            RoundRobin.simulateRR(wf.workload, wf.rrQuantum, wf.contextSwitch));
+                })
+        );
+    }
+
+    // ====================== TIMELINE SINK TESTS ======================
+    @TestFactory
+    Stream<DynamicTest> timelineTests() {
+        return fixtures("Other_Schedulers").map(path ->
+                DynamicTest.dynamicTest("Timeline " + path.getFileName(), () -> {
+
+                    WorkloadFile wf = cached(path);
+                    Workload w = wf.workload;
+                    int cs = wf.contextSwitch;
+
+                    RleTimeline ticks = new RleTimeline();
+                    RleTimeline events = new RleTimeline();
+                    SJFResult traced = PreemptiveSJF.simulateSJF(w, cs, ticks);
+                    PreemptiveSJF.simulateSJFEvents(w, cs, events);
+
+                    // Same results, trace in the sink instead of executionOrder
+                    assertTrue(traced.executionOrder.isEmpty());
+                    assertResult(wf.expectedOutput.SJF, new SJFResult(
+                            wf.expectedOutput.SJF.executionOrder, traced.processResults,
+                            traced.avgWait, traced.avgTAT));
+
+                    // Merged runs: the tick loop and the event loop give the same trace
+                    assertSameTimeline(ticks, events);
+                    assertValidTimeline(w, ticks);
+
+                    RleTimeline rr = new RleTimeline();
+                    RoundRobin.simulateRR(w, wf.rrQuantum, cs, rr);
+                    assertValidTimeline(w, rr);
+
+                    RleTimeline prio = new RleTimeline();
+                    PreemptivePriority.simulatePriority(w, cs, wf.agingOrZero(),
+                            PreemptivePriorityScheduling.QueueBackend.HEAP, prio);
+                    assertValidTimeline(w, prio);
+
+                    RleTimeline ag = new RleTimeline();
+                    new AGScheduler(w, ag).simulate();
+                    assertValidTimeline(w, ag);
+
+                    // File sink round trip
+                    File tmp = File.createTempFile("timeline", ".bin");
+                    tmp.deleteOnExit();
+                    try (FileTimelineSink file = new FileTimelineSink(tmp.getPath())) {
+                        PreemptiveSJF.simulateSJF(w, cs, file);
+                    }
+                    RleTimeline back = new RleTimeline();
+                    FileTimelineSink.replay(tmp.getPath(), back);
+                    assertSameTimeline(ticks, back);
+                })
+        );
+    }
+
+    @TestFactory
+    Stream<DynamicTest> timelineIndexTests() {
+        Stream<DynamicTest> files = fixtures("Other_Schedulers").map(path ->
+                DynamicTest.dynamicTest("Timeline index " + path.getFileName(), () -> {
+
+                    WorkloadFile wf = cached(path);
+                    Workload w = wf.workload;
+
+                    RleTimeline rr = new RleTimeline();
+                    RoundRobin.simulateRR(w, wf.rrQuantum, wf.contextSwitch, rr);
+                    assertIndexMatchesTicks(rr, new SplittableRandom(path.hashCode()), 2000);
+
+                    RleTimeline prio = new RleTimeline();
+                    PreemptivePriority.simulatePriority(w, wf.contextSwitch, wf.agingOrZero(),
+                            PreemptivePriorityScheduling.QueueBackend.HEAP, prio);
+                    assertIndexMatchesTicks(prio, new SplittableRandom(path.hashCode()), 2000);
+
+                    // The whole run as a window is the timeline itself
+                    RleTimeline copy = new RleTimeline();
+                    prio.index().window(Integer.MIN_VALUE, Integer.MAX_VALUE, copy);
+                    assertSameTimeline(prio, copy);
+                })
+        );
+
+        DynamicTest large = DynamicTest.dynamicTest("Timeline index generated run", () -> {
+            Workload w = new WorkloadGenerator()
+                    .processes(5000)
+                    .seed(21)
+                    .arrivals(WorkloadGenerator.Arrivals.POISSON, 5)
+                    .bursts(WorkloadGenerator.Bursts.EXPONENTIAL, 4)
+                    .generate();
+            RleTimeline rr = new RleTimeline();
+            RoundRobin.simulateRR(w, 3, 1, rr);
+            assertIndexMatchesTicks(rr, new SplittableRandom(5), 20000);
+
+            TimelineIndex index = rr.index();
+            int mid = rr.start(rr.size() / 2);
+            String window = index.render(mid, mid + 10, w);
+            assertTrue(window.startsWith(mid + "-") || index.pidAt(mid) == -1, window);
+        });
+
+        return Stream.concat(files, Stream.of(large));
+    }
+
+    // ====================== COMPARISON RUNNER TESTS ======================
+    @TestFactory
+    Stream<DynamicTest> comparisonRunnerTests() {
+        return Stream.of(1, 2, 8).map(threads ->
+                DynamicTest.dynamicTest("Comparison runner, " + threads + " threads", () -> {
+
+                    // Every file several times over, so tasks really overlap
+                    List<String> others = new ArrayList<>(), ags = new ArrayList<>();
+                    for (int round = 0; round < 5; round++) {
+                        fixtures("Other_Schedulers").forEach(p -> others.add(p.toString()));
+                        fixtures("AG").forEach(p -> ags.add(p.toString()));
+                    }
+
+                    try (ComparisonRunner runner = new ComparisonRunner(threads)) {
+                        assertSameAsSerial(runner, runner.readAll(others),
+                                ComparisonRunner.Algorithm.SJF,
+                                ComparisonRunner.Algorithm.RR,
+                                ComparisonRunner.Algorithm.PRIORITY);
+                        assertSameAsSerial(runner, runner.readAll(ags),
+                                ComparisonRunner.Algorithm.AG);
+                    }
+                })
+        );
+    }
+
+    // ====================== PARAMETER SWEEP TESTS ======================
+    @TestFactory
+    Stream<DynamicTest> parameterSweepTests() {
+        return fixtures("Other_Schedulers").map(path ->
+                DynamicTest.dynamicTest("Parameter sweep " + path.getFileName(), () -> {
+
+                    Workload w = cached(path).workload;
+
+                    // Every grid point matches a plain serial run with the same parameters
+                    List<ParameterSweep.Point> rr = ParameterSweep.sweepRR(
+                            w, ParameterSweep.Range.parse("1:8"), 1);
+                    assertEquals(8, rr.size());
+                    for (ParameterSweep.Point p : rr) {
+                        SJFResult serial = RoundRobin.simulateRR(w, p.quantum, 1);
+                        assertEquals(serial.avgWait, p.waiting.avg, 1e-9);
+                        assertEquals(serial.avgTAT, p.turnaround.avg, 1e-9);
+                    }
+
+                    List<ParameterSweep.Point> prio = ParameterSweep.sweepPriority(
+                            w, ParameterSweep.Range.parse("0:2"), ParameterSweep.Range.parse("0:9:3"));
+                    assertEquals(3 * 4, prio.size());
+                    for (ParameterSweep.Point p : prio) {
+                        SJFResult serial = PreemptivePriority.simulatePriority(
+                                w, p.contextSwitch, p.agingInterval);
+                        assertEquals(serial.avgWait, p.waiting.avg, 1e-9);
+                        assertEquals(serial.avgTAT, p.turnaround.avg, 1e-9);
+
+                        int maxWait = 0;
+                        for (ProcessResult r : serial.processResults)
+                            maxWait = Math.max(maxWait, r.waitingTime);
+                        assertEquals(maxWait, p.waiting.max);
+                        assertTrue(p.waiting.p50 <= p.waiting.p90 && p.waiting.p90 <= p.waiting.p99);
+                    }
+                })
+        );
+    }
+
+    // ====================== WORKLOAD GENERATOR TESTS ======================
+    @TestFactory
+    Stream<DynamicTest> generatorTests() {
+        return Stream.of(WorkloadGenerator.Bursts.values()).map(bursts ->
+                DynamicTest.dynamicTest("Generator " + bursts, () -> {
+
+                    WorkloadGenerator gen = new WorkloadGenerator()
+                            .processes(2000)
+                            .seed(7)
+                            .arrivals(WorkloadGenerator.Arrivals.BURSTY, 3)
+                            .bursts(bursts, 6)
+                            .priorities(WorkloadGenerator.Priorities.SKEWED, 1, 20);
+                    Workload w = gen.generate();
+
+                    // Same seed, same workload
+                    assertSameWorkload(w, gen.generate());
+
+                    for (int r = 0; r < w.size(); r++) {
+                        if (r > 0) assertTrue(w.arrival(r - 1) <= w.arrival(r));
+                        assertTrue(w.burst(r) >= 1);
+                        assertTrue(w.priority(r) >= 1 && w.priority(r) <= 20);
+                        assertTrue(w.quantum(r) >= 2 && w.quantum(r) <= 8);
+                    }
+
+                    // The streamed file reads back as the same workload
+                    StringWriter json = new StringWriter();
+                    gen.writeJson(json, "generated");
+                    WorkloadFile back = WorkloadReader.read(new StringReader(json.toString()));
+                    assertSameWorkload(w, back.workload);
+                    assertEquals(5, back.agingOrZero());
+
+                    // Degenerate settings are refused, not clamped into a flat workload
+                    assertThrows(IllegalArgumentException.class,
+                            () -> new WorkloadGenerator().bursts(bursts, 0.5).generate());
+                    assertThrows(IllegalArgumentException.class,
+                            () -> new WorkloadGenerator().arrivals(WorkloadGenerator.Arrivals.POISSON, -1).generate());
+                    assertThrows(IllegalArgumentException.class,
+                            () -> new WorkloadGenerator().bursts(bursts, 6).pareto(1.5, 0).generate());
+                    if (bursts == WorkloadGenerator.Bursts.PARETO) {
+                        assertThrows(IllegalArgumentException.class,
+                                () -> new WorkloadGenerator().bursts(bursts, 6).pareto(1.0, 100).generate());
+                        assertThrows(IllegalArgumentException.class,
+                                () -> new WorkloadGenerator().bursts(bursts, 6).pareto(0.5, 100)
+                                        .writeJson(new StringWriter(), "bad"));
+                    }
+
+                    // Large enough to tell the engine variants apart if they disagree
+                    assertSameResult(PreemptiveSJF.simulateSJF(w, 1),
+                            PreemptiveSJF.simulateSJFEvents(w, 1));
+                    assertSameResult(
+                            PreemptivePriority.simulatePriority(w, 1, 5),
+                            PreemptivePriority.simulatePriority(w, 1, 5,
+                                    PreemptivePriorityScheduling.QueueBackend.BUCKETS));
+                })
+        );
+    }
+
+    // ====================== SCHEDULING POLICY TESTS ======================
+    @TestFactory
+    Stream<DynamicTest> policyTests() {
+        return fixtures("Other_Schedulers").map(path ->
+                DynamicTest.dynamicTest("FCFS policy " + path.getFileName(), () -> {
+
+                    WorkloadFile wf = cached(path);
+
+                    // A new policy gets the shared core for free; FCFS is
+                    // Round Robin with a quantum no burst can reach
+                    SimulationCore core = new SimulationCore(wf.workload, wf.contextSwitch, null);
+                    core.run(new FcfsPolicy(core));
+
+                    assertSameResult(
+                            RoundRobin.simulateRR(wf.workload, Integer.MAX_VALUE, wf.contextSwitch),
+                            core.result());
+                })
+        );
+    }
+
+    // First come, first served: runs each process to completion in arrival order
+    private static final class FcfsPolicy implements SchedulingPolicy {
+        private final SimulationCore core;
+        private final IntRingBuffer ready;
+
+        FcfsPolicy(SimulationCore core) {
+            this.core = core;
+            this.ready = new IntRingBuffer(core.table().size());
+        }
+
+        public void onArrival(int row) { ready.add(row); }
+
+        public int select() {
+            if (ready.isEmpty()) return -1;
+            int row = ready.poll();
+            core.record(row);
+            return row;
+        }
+
+        public int runLength(int row) { return core.remaining(row); }
+
+        public void afterRun(int row) { throw new IllegalStateException("FCFS never preempts"); }
+
+        public void onComplete(int row) {}
+    }
+
+    // ====================== ONLINE SIMULATION TESTS ======================
+    @TestFactory
+    Stream<DynamicTest> onlineTests() {
+        Stream<DynamicTest> files = fixturePairs().map(pair ->
+                DynamicTest.dynamicTest("Online " + pair[0].getFileName(), () -> {
+
+                    WorkloadFile wf = cached(pair[0]);
+                    WorkloadFile ag = cached(pair[1]);
+                    Workload w = wf.workload;
+
+                    assertSameAsBatch(w, wf.contextSwitch, w.size(), SjfPolicy::new);
+                    assertSameAsBatch(w, wf.contextSwitch, w.size(),
+                            core -> new RoundRobinPolicy(core, wf.rrQuantum));
+                    assertSameAsBatch(w, wf.contextSwitch, w.size(),
+                            core -> new PriorityPolicy(core, wf.agingOrZero(),
+                                    PreemptivePriorityScheduling.QueueBackend.HEAP));
+                    assertSameAsBatch(ag.workload, 0, ag.workload.size(), AGPolicy::new);
+                })
+        );
+
+        // Far more processes than slots: finished ones must hand theirs back
+        DynamicTest bounded = DynamicTest.dynamicTest("Online bounded slots", () -> {
+            Workload w = new WorkloadGenerator()
+                    .processes(20000)
+                    .seed(11)
+                    .arrivals(WorkloadGenerator.Arrivals.POISSON, 8)
+                    .bursts(WorkloadGenerator.Bursts.EXPONENTIAL, 4)
+                    .generate();
+
+            assertSameAsBatch(w, 1, 256, SjfPolicy::new);
+            assertSameAsBatch(w, 1, 256, core -> new RoundRobinPolicy(core, 3));
+            assertSameAsBatch(w, 1, 256, core -> new PriorityPolicy(core, 5,
+                    PreemptivePriorityScheduling.QueueBackend.HEAP));
+            assertSameAsBatch(w, 0, 256, AGPolicy::new);
+        });
+
+        return Stream.concat(files, Stream.of(bounded));
+    }
+
+    // ====================== SMP TESTS ======================
+    @TestFactory
+    Stream<DynamicTest> smpTests() {
+        Stream<DynamicTest> files = fixturePairs().map(pair ->
+                DynamicTest.dynamicTest("SMP one CPU " + pair[0].getFileName(), () -> {
+
+                    WorkloadFile wf = cached(pair[0]);
+                    WorkloadFile ag = cached(pair[1]);
+
+                    for (SmpSimulator.Balancing b : new SmpSimulator.Balancing[] {
+                            SmpSimulator.Balancing.PER_CORE, SmpSimulator.Balancing.WORK_STEALING }) {
+                        SmpSimulator smp = new SmpSimulator(1).balancing(b)
+                                .parameters(wf.contextSwitch, wf.rrQuantum, wf.agingOrZero());
+                        for (ComparisonRunner.Algorithm a : new ComparisonRunner.Algorithm[] {
+                                ComparisonRunner.Algorithm.SJF, ComparisonRunner.Algorithm.RR,
+                                ComparisonRunner.Algorithm.PRIORITY })
+                            assertSameTimes(ComparisonRunner.simulate(wf, a), smp.run(wf.workload, a));
+                        assertSameTimes(ComparisonRunner.simulate(ag, ComparisonRunner.Algorithm.AG),
+                                smp.run(ag.workload, ComparisonRunner.Algorithm.AG));
+
+                        // The order comes from what actually ran, so compare it as a timeline
+                        RleTimeline expected = new RleTimeline();
+                        SimulationCore core = new SimulationCore(wf.workload, wf.contextSwitch, expected);
+                        core.run(new RoundRobinPolicy(core, wf.rrQuantum));
+                        assertSameTimeline(expected,
+                                smp.run(wf.workload, ComparisonRunner.Algorithm.RR).timelines[0]);
+                    }
+                })
+        );
+
+        // Several CPUs: every mode must still give each process exactly its burst
+        Stream<DynamicTest> modes = Arrays.stream(SmpSimulator.Balancing.values()).map(b ->
+                DynamicTest.dynamicTest("SMP 4 CPUs " + b, () -> {
+                    Workload w = new WorkloadGenerator()
+                            .processes(500)
+                            .seed(5)
+                            .arrivals(WorkloadGenerator.Arrivals.POISSON, 2)
+                            .bursts(WorkloadGenerator.Bursts.EXPONENTIAL, 6)
+                            .generate();
+                    SmpSimulator smp = new SmpSimulator(4).balancing(b).migrationCost(2).parameters(1, 3, 5);
+
+                    for (ComparisonRunner.Algorithm a : ComparisonRunner.Algorithm.values())
+                        assertValidSmpSchedule(w, smp.run(w, a));
+                })
+        );
+
+        return Stream.concat(files, modes);
+    }
+
+    // ====================== CHECKPOINT TESTS ======================
+    @TestFactory
+    Stream<DynamicTest> checkpointTests() {
+        Stream<DynamicTest> files = fixturePairs().map(pair ->
+                DynamicTest.dynamicTest("Checkpoint " + pair[0].getFileName(), () -> {
+
+                    WorkloadFile wf = cached(pair[0]);
+                    WorkloadFile ag = cached(pair[1]);
+                    Workload w = wf.workload;
+
+                    // Stopped and restored into a fresh core every few ticks
+                    for (int every = 1; every <= 5; every += 2) {
+                        assertSameAfterResume(w, wf.contextSwitch, every, SjfPolicy::new);
+                        assertSameAfterResume(w, wf.contextSwitch, every,
+                                core -> new RoundRobinPolicy(core, wf.rrQuantum));
+                        for (PreemptivePriorityScheduling.QueueBackend b : PreemptivePriorityScheduling.QueueBackend.values())
+                            assertSameAfterResume(w, wf.contextSwitch, every,
+                                    core -> new PriorityPolicy(core, wf.agingOrZero(), b));
+                        assertSameAfterResume(ag.workload, 0, every, AGPolicy::new);
+                    }
+                })
+        );
+
+        // A run that died halfway picks up from the last checkpoint file
+        DynamicTest file = DynamicTest.dynamicTest("Checkpoint file resume", () -> {
+            Workload w = new WorkloadGenerator()
+                    .processes(2000)
+                    .seed(3)
+                    .arrivals(WorkloadGenerator.Arrivals.POISSON, 4)
+                    .bursts(WorkloadGenerator.Bursts.EXPONENTIAL, 4)
+                    .generate();
+            Path dir = Files.createTempDirectory("checkpoint");
+            Path path = dir.resolve("ag.ckpt");
+
+            RleTimeline expected = new RleTimeline();
+            SimulationCore whole = new SimulationCore(w, 0, expected);
+            whole.run(new AGPolicy(whole));
+
+            // The sink outlives the run, so it holds the slices so far
+            RleTimeline trace = new RleTimeline();
+            SimulationCore dead = new SimulationCore(w, 0, trace);
+            dead.attach(new AGPolicy(dead));
+            dead.advance(w.arrival(w.size() / 2));
+            Checkpoint.write(dead, w, path);
+
+            SimulationCore resumed = new SimulationCore(w, 0, trace);
+            AGPolicy policy = new AGPolicy(resumed);
+            resumed.attach(policy);
+            Checkpoint.run(resumed, w, 500, path);
+
+            assertTrue(resumed.finished());
+            assertSameTimeline(expected, trace);
+            for (int r = 0; r < w.size(); r++) {
+                assertEquals(whole.completionTime(r), resumed.completionTime(r), w.name(r));
+                assertArrayEquals(((AGPolicy) whole.policy()).quantumHistory(r), policy.quantumHistory(r), w.name(r));
+            }
+
+            // Settings that do not match the checkpoint are refused
+            SimulationCore other = new SimulationCore(w, 1, TimelineSink.DISCARD);
+            other.attach(new AGPolicy(other));
+            assertThrows(IOException.class, () -> Checkpoint.read(other, w, path));
+            SimulationCore rr = new SimulationCore(w, 0, TimelineSink.DISCARD);
+            rr.attach(new RoundRobinPolicy(rr, 2));
+            assertThrows(IOException.class, () -> Checkpoint.read(rr, w, path));
+
+            // So are runs that could not carry on exactly, before a file is written
+            Path refused = dir.resolve("refused.ckpt");
+            SimulationCore untraced = new SimulationCore(w, 0, null);
+            untraced.attach(new AGPolicy(untraced));
+            assertThrows(IOException.class, () -> Checkpoint.write(untraced, w, refused));
+            SimulationCore fcfs = new SimulationCore(w, 0, TimelineSink.DISCARD);
+            fcfs.attach(new FcfsPolicy(fcfs));
+            assertThrows(IOException.class, () -> Checkpoint.run(fcfs, w, 500, refused));
+            assertEquals(0, fcfs.time());
+            assertFalse(Files.exists(refused));
+            assertFalse(Files.exists(dir.resolve("refused.ckpt.tmp")));
+
+            Files.delete(path);
+            Files.delete(dir);
+        });
+
+        return Stream.concat(files, Stream.of(file));
+    }
+
+    // ====================== BINARY WORKLOAD TESTS ======================
+    @TestFactory
+    Stream<DynamicTest> binaryWorkloadTests() {
+        Stream<DynamicTest> files = fixtures("Other_Schedulers").map(path ->
+                DynamicTest.dynamicTest("Binary " + path.getFileName(), () -> {
+
+                    Path bin = Files.createTempFile("workload", BinaryWorkload.EXTENSION);
+                    BinaryWorkload.convert(path.toString(), bin.toString());
+
+                    WorkloadFile expected = cached(path);
+                    WorkloadFile mapped = BinaryWorkload.map(bin.toString());
+
+                    assertSameWorkload(expected.workload, mapped.workload);
+                    assertArrayEquals(expected.workload.byArrival(), mapped.workload.byArrival());
+                    assertEquals(expected.name, mapped.name);
+                    assertEquals(expected.contextSwitch, mapped.contextSwitch);
+                    assertEquals(expected.rrQuantum, mapped.rrQuantum);
+                    assertEquals(expected.agingInterval, mapped.agingInterval);
+                    for (ComparisonRunner.Algorithm a : ComparisonRunner.Algorithm.values())
+                        assertSameResult(ComparisonRunner.simulate(expected, a), ComparisonRunner.simulate(mapped, a));
+
+                    Files.delete(bin);
+                })
+        );
+
+        DynamicTest generated = DynamicTest.dynamicTest("Binary generated workload", () -> {
+            WorkloadFile file = new WorkloadFile();
+            file.workload = new WorkloadGenerator()
+                    .processes(50000)
+                    .seed(9)
+                    .arrivals(WorkloadGenerator.Arrivals.BURSTY, 3)
+                    .bursts(WorkloadGenerator.Bursts.PARETO, 5)
+                    .generate();
+            file.contextSwitch = 1;
+            file.rrQuantum = 4;
+            Path bin = Files.createTempFile("generated", BinaryWorkload.EXTENSION);
+            BinaryWorkload.write(file, bin.toString());
+
+            WorkloadFile mapped = BinaryWorkload.map(bin.toString());
+            assertSameWorkload(file.workload, mapped.workload);
+            assertArrayEquals(file.workload.byArrival(), mapped.workload.byArrival());
+            assertNull(mapped.agingInterval);
+
+            // Corrupt ids, orders and offsets are refused at load time
+            byte[] good = Files.readAllBytes(bin);
+            int n = file.workload.size(), m = mapped.workload.nameCount();
+            int nameIds = 40 + 16 * n, byArrival = 40 + 20 * n, offsets = 40 + 24 * n;
+            assertCorruptRefused(bin, good, nameIds + 4 * 7, m);               // name id past the names
+            assertCorruptRefused(bin, good, nameIds, -1);                      // negative name id
+            assertCorruptRefused(bin, good, byArrival + 4, readInt(good, byArrival));   // row twice
+            assertCorruptRefused(bin, good, byArrival, n);                     // row past the end
+            assertCorruptRefused(bin, good, offsets + 4, readInt(good, offsets + 8) + 1);   // offsets fall
+            assertCorruptRefused(bin, good, offsets, 1);                       // offsets not from 0
+            byte[] balanced = good.clone();                                     // negative title, longer names
+            writeInt(balanced, 32, -4);
+            writeInt(balanced, 36, readInt(good, 36) + 4);
+            Files.write(bin, balanced);
+            assertThrows(IOException.class, () -> BinaryWorkload.map(bin.toString()));
+
+            // Anything else is refused
+            Files.write(bin, new byte[] { 1, 2, 3, 4, 5, 6, 7, 8 });
+            assertThrows(IOException.class, () -> BinaryWorkload.map(bin.toString()));
+            Files.delete(bin);
+        });
+
+        return Stream.concat(files, Stream.of(generated));
+    }
+
+    // ====================== METRICS TESTS ======================
+    @TestFactory
+    Stream<DynamicTest> metricsTests() {
+        Stream<DynamicTest> files = fixturePairs().map(pair ->
+                DynamicTest.dynamicTest("Metrics " + pair[0].getFileName(), () -> {
+
+                    WorkloadFile wf = cached(pair[0]);
+                    WorkloadFile ag = cached(pair[1]);
+                    Workload w = wf.workload;
+                    int cs = wf.contextSwitch;
+
+                    // Every tick is idle, running or switching
+                    assertTickAccounting(w, cs, SjfPolicy::new);
+                    assertTickAccounting(w, cs, core -> new RoundRobinPolicy(core, wf.rrQuantum));
+                    assertTickAccounting(w, cs, core -> new PriorityPolicy(core, wf.agingOrZero(),
+                            PreemptivePriorityScheduling.QueueBackend.HEAP));
+                    assertTickAccounting(ag.workload, 0, AGPolicy::new);
+
+                    // Each AG quantum change is one of the counted causes (or the final 0)
+                    SimulationCore core = new SimulationCore(ag.workload, 0, null);
+                    AGPolicy policy = new AGPolicy(core);
+                    core.run(policy);
+                    RunMetrics m = core.metrics();
+                    int changes = 0;
+                    for (int r = 0; r < ag.workload.size(); r++) changes += policy.quantumHistory(r).length - 2;
+                    assertEquals(changes, m.get(RunMetrics.Counter.PREEMPT_PRIORITY)
+                            + m.get(RunMetrics.Counter.PREEMPT_SHORTER)
+                            + m.get(RunMetrics.Counter.QUANTUM_EXPIRIES));
+
+                    // Both priority backends see the same aging
+                    SimulationCore heap = new SimulationCore(w, cs, null);
+                    heap.run(new PriorityPolicy(heap, wf.agingOrZero(), PreemptivePriorityScheduling.QueueBackend.HEAP));
+                    SimulationCore buckets = new SimulationCore(w, cs, null);
+                    buckets.run(new PriorityPolicy(buckets, wf.agingOrZero(), PreemptivePriorityScheduling.QueueBackend.BUCKETS));
+                    assertEquals(heap.metrics().toString(), buckets.metrics().toString());
+                })
+        );
+
+        DynamicTest registry = DynamicTest.dynamicTest("Metrics registry and JMX", () -> {
+            WorkloadFile wf = cached(fixtures("Other_Schedulers").findFirst().get());
+            MetricsRegistry.reset();
+            try {
+                MetricsRegistry.enable();
+                RoundRobin.simulateRR(wf.workload, wf.rrQuantum, wf.contextSwitch);
+                RoundRobin.simulateRR(wf.workload, wf.rrQuantum, wf.contextSwitch);
+
+                SimulationCore core = new SimulationCore(wf.workload, wf.contextSwitch, null);
+                core.run(new RoundRobinPolicy(core, wf.rrQuantum));
+                RunMetrics one = core.metrics();
+
+                RunMetrics totals = MetricsRegistry.snapshot("RoundRobinPolicy");
+                assertEquals(3, totals.get(RunMetrics.Counter.RUNS));
+                assertEquals(3 * one.get(RunMetrics.Counter.EVENTS), totals.get(RunMetrics.Counter.EVENTS));
+                assertEquals(one.get(RunMetrics.Counter.READY_HIGH_WATER), totals.get(RunMetrics.Counter.READY_HIGH_WATER));
+
+                ObjectName name = new ObjectName(
+                        "scheduler:type=Engine,name=" + ObjectName.quote("RoundRobinPolicy"));
+                MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+                assertEquals(3L, server.getAttribute(name, "RUNS"));
+
+                // Nothing is recorded while off
+                MetricsRegistry.disable();
+                RoundRobin.simulateRR(wf.workload, wf.rrQuantum, wf.contextSwitch);
+                assertEquals(3, MetricsRegistry.snapshot("RoundRobinPolicy").get(RunMetrics.Counter.RUNS));
+
+                server.invoke(name, "reset", new Object[0], new String[0]);
+                assertEquals(0L, server.getAttribute(name, "RUNS"));
+            } finally {
+                MetricsRegistry.disable();
+                MetricsRegistry.reset();
+            }
+        });
+
+        return Stream.concat(files, Stream.of(registry));
+    }
+
+    // ====================== LATENCY TESTS ======================
+    @TestFactory
+    Stream<DynamicTest> latencyTests() {
+        Stream<DynamicTest> files = fixturePairs().map(pair ->
+                DynamicTest.dynamicTest("Latency " + pair[0].getFileName(), () -> {
+
+                    WorkloadFile wf = cached(pair[0]);
+                    WorkloadFile ag = cached(pair[1]);
+                    Workload w = wf.workload;
+                    int cs = wf.contextSwitch;
+
+                    RleTimeline ticks = new RleTimeline(), events = new RleTimeline();
+                    SJFResult sjf = PreemptiveSJF.simulateSJF(w, cs, ticks);
+                    assertLatencyMatches(w, sjf, ticks);
+                    assertLatencyMatches(w, PreemptiveSJF.simulateSJFEvents(w, cs, events), events);
+                    assertEquals(sjf.latency.toString(), PreemptiveSJF.simulateSJFEvents(w, cs).latency.toString());
+
+                    RleTimeline rr = new RleTimeline(), prio = new RleTimeline(), agTimeline = new RleTimeline();
+                    assertLatencyMatches(w, RoundRobin.simulateRR(w, wf.rrQuantum, cs, rr), rr);
+                    assertLatencyMatches(w, PreemptivePriority.simulatePriority(w, cs, wf.agingOrZero(),
+                            PreemptivePriorityScheduling.QueueBackend.BUCKETS, prio), prio);
+                    assertLatencyMatches(ag.workload, new AGScheduler(ag.workload, agTimeline).simulate(), agTimeline);
+                })
+        );
+
+        DynamicTest generated = DynamicTest.dynamicTest("Latency generated workload", () -> {
+            Workload w = new WorkloadGenerator()
+                    .processes(20000)
+                    .seed(23)
+                    .arrivals(WorkloadGenerator.Arrivals.BURSTY, 3)
+                    .bursts(WorkloadGenerator.Bursts.PARETO, 6)
+                    .generate();
+
+            RleTimeline rr = new RleTimeline(), prio = new RleTimeline();
+            assertLatencyMatches(w, RoundRobin.simulateRR(w, 4, 1, rr), rr);
+            assertLatencyMatches(w, PreemptivePriority.simulatePriority(w, 1, 5,
+                    PreemptivePriorityScheduling.QueueBackend.HEAP, prio), prio);
+
+            // Across CPUs a process is first dispatched wherever its first slice is
+            SmpSimulator.Result smp = new SmpSimulator(4).run(w, ComparisonRunner.Algorithm.RR);
+            RleTimeline first = new RleTimeline();
+            int[] start = new int[w.size()];
+            Arrays.fill(start, Integer.MAX_VALUE);
+            for (RleTimeline t : smp.timelines)
+                for (int k = 0; k < t.size(); k++) start[t.pid(k)] = Math.min(start[t.pid(k)], t.start(k));
+            for (int r = 0; r < w.size(); r++) first.slice(r, start[r], start[r] + 1);
+            assertLatencyMatches(w, smp, first);
+
+            // Wide values stay within the bucket precision, and merging is recording both
+            SplittableRandom rnd = new SplittableRandom(5);
+            LatencyHistogram a = new LatencyHistogram(), b = new LatencyHistogram(), all = new LatencyHistogram();
+            int[] values = new int[100000];
+            for (int k = 0; k < values.length; k++) {
+                values[k] = rnd.nextInt(1 << rnd.nextInt(1, 31));
+                (k % 2 == 0 ? a : b).record(values[k]);
+                all.record(values[k]);
+            }
+            a.merge(b);
+            assertHistogramMatches(values, a);
+            for (double p : LatencyStats.PERCENTILES) assertEquals(all.percentile(p), a.percentile(p));
+            assertThrows(IllegalArgumentException.class, () -> all.record(-1));
+        });
+
+        return Stream.concat(files, Stream.of(generated));
+    }
+
+    // ====================== SUITE RUNNER TESTS ======================
+    @TestFactory
+    Stream<DynamicTest> suiteRunnerTests() {
+        Stream<DynamicTest> fixtures = Stream.of(1, 4).map(threads ->
+                DynamicTest.dynamicTest("Suite runner fixtures, " + threads + " threads", () -> {
+
+                    WorkloadCache cache = new WorkloadCache();
+                    List<Path> files = SuiteRunner.discover(Paths.get("test_cases_v3"));
+                    try (SuiteRunner suite = new SuiteRunner(cache, threads)) {
+                        SuiteRunner.Report report = suite.run(Paths.get("test_cases_v3"));
+                        assertEquals(files.size(), report.files);
+
+                        // One check per expectation, in file order, each as a serial run sees it
+                        int k = 0;
+                        for (Path file : files) {
+                            WorkloadFile wf = cached(file);
+                            for (ComparisonRunner.Algorithm a : ComparisonRunner.Algorithm.values()) {
+                                SJFExpected expected = SuiteRunner.expected(wf, a);
+                                if (expected == null) continue;
+                                SuiteRunner.Check check = report.checks.get(k++);
+                                assertEquals(file, check.file);
+                                assertEquals(a, check.algorithm);
+                                SJFResult serial = ComparisonRunner.simulate(wf, a);
+                                assertSameResult(serial, check.actual);
+                                assertEquals(SuiteRunner.passes(serial, expected), check.passed);
+                            }
+                        }
+                        assertEquals(k, report.checks.size());
+
+                        // A second run parses nothing
+                        suite.run(files);
+                        assertEquals(files.size(), cache.parses());
+                    }
+                })
+        );
+
+        DynamicTest tree = DynamicTest.dynamicTest("Suite runner generated tree", () -> {
+            Path root = Files.createTempDirectory("suite");
+            Path broken = null;
+            for (int set = 1; set <= 10; set++) {
+                Path dir = Files.createDirectory(root.resolve("set_" + set));
+                for (int j = 1; j <= 100; j++) {
+                    Workload w = new WorkloadGenerator().processes(20).seed(set * 1000L + j).generate();
+                    TestFile tf = new TestFile();
+                    tf.input = new Input();
+                    tf.input.contextSwitch = 1;
+                    tf.input.rrQuantum = 4;
+                    tf.input.agingInterval = 5;
+                    tf.input.processes = inputs(w);
+                    tf.expectedOutput = new ExpectedOutput();
+                    tf.expectedOutput.SJF = expectedOf(PreemptiveSJF.simulateSJF(w, 1));
+                    tf.expectedOutput.RR = expectedOf(RoundRobin.simulateRR(w, 4, 1));
+                    tf.expectedOutput.Priority = expectedOf(PreemptivePriority.simulatePriority(w, 1, 5));
+
+                    Path file = dir.resolve("w_" + j + ".json");
+                    if (set == 7 && j == 42) {
+                        tf.expectedOutput.RR.averageWaitingTime += 1;
+                        broken = file;
+                    }
+                    Files.writeString(file, GSON.toJson(tf));
+                }
+            }
+
+            List<Path> files = SuiteRunner.discover(root);
+            assertEquals(1000, files.size());
+            assertEquals(root.resolve("set_1").resolve("w_1.json"), files.get(0));
+            assertEquals(root.resolve("set_1").resolve("w_2.json"), files.get(1));
+            assertEquals(root.resolve("set_10").resolve("w_100.json"), files.get(999));
+
+            WorkloadCache cache = new WorkloadCache();
+            try (SuiteRunner suite = new SuiteRunner(cache)) {
+                SuiteRunner.Report report = suite.run(root);
+                assertEquals(3000, report.checks.size());
+                assertEquals(1, report.failed());
+                for (SuiteRunner.Check c : report.checks)
+                    assertEquals(!(c.file.equals(broken) && c.algorithm == ComparisonRunner.Algorithm.RR), c.passed);
+                assertEquals(1000, cache.parses());
+            }
+
+            try (Stream<Path> walk = Files.walk(root)) {
+                walk.sorted(Comparator.reverseOrder()).forEach(p -> p.toFile().delete());
+            }
+        });
+
+        return Stream.concat(fixtures, Stream.of(tree));
+    }
+
+    // ====================== RESULT CACHE TESTS ======================
+    @TestFactory
+    Stream<DynamicTest> resultCacheTests() {
+        Stream<DynamicTest> files = fixturePairs().map(pair ->
+                DynamicTest.dynamicTest("Result cache " + pair[0].getFileName(), () -> {
+
+                    WorkloadFile wf = cached(pair[0]), ag = cached(pair[1]);
+                    ResultCache cache = new ResultCache(1 << 20);
+
+                    // A hit is the stored result itself, as good as a fresh run
+                    for (ComparisonRunner.Algorithm a : ComparisonRunner.Algorithm.values()) {
+                        WorkloadFile file = a == ComparisonRunner.Algorithm.AG ? ag : wf;
+                        SJFResult first = cache.simulate(file, a);
+                        assertSameResult(ComparisonRunner.simulate(file, a), first);
+                        assertSame(first, cache.simulate(file, a));
+                    }
+                    ResultCache.Stats stats = cache.stats();
+                    assertEquals(4, stats.memoryHits);
+                    assertEquals(4, stats.misses);
+                    assertEquals(4, stats.entries);
+                    assertTrue(cache.simulate(ag, ComparisonRunner.Algorithm.AG) instanceof AGResult);
+
+                    // Keys follow content and only the settings each algorithm reads
+                    Workload copy = Workload.fromInputs(load(pair[0]).input.processes);
+                    String sjf = cache.key(wf.workload, ComparisonRunner.Algorithm.SJF, 1, 2, 3);
+                    assertEquals(sjf, cache.key(copy, ComparisonRunner.Algorithm.SJF, 1, 7, 9));
+                    assertNotEquals(sjf, cache.key(wf.workload, ComparisonRunner.Algorithm.SJF, 2, 2, 3));
+                    assertNotEquals(sjf, cache.key(wf.workload, ComparisonRunner.Algorithm.RR, 1, 2, 3));
+                    assertNotEquals(cache.key(wf.workload, ComparisonRunner.Algorithm.RR, 1, 2, 3),
+                            cache.key(wf.workload, ComparisonRunner.Algorithm.RR, 1, 3, 3));
+                    assertEquals(cache.key(ag.workload, ComparisonRunner.Algorithm.AG, 0, 0, 0),
+                            cache.key(ag.workload, ComparisonRunner.Algorithm.AG, 5, 6, 7));
+                    assertNotEquals(sjf, new ResultCache(1, null, ResultCache.ENGINE_VERSION + 1)
+                            .key(wf.workload, ComparisonRunner.Algorithm.SJF, 1, 2, 3));
+
+                    // Through the comparison runner, a second pass simulates nothing
+                    ResultCache shared = new ResultCache(1 << 20);
+                    try (ComparisonRunner runner = new ComparisonRunner(2).cache(shared)) {
+                        List<WorkloadFile> list = List.of(wf, wf);
+                        SJFResult[][] once = runner.run(list, ComparisonRunner.Algorithm.SJF, ComparisonRunner.Algorithm.RR);
+                        SJFResult[][] twice = runner.run(list, ComparisonRunner.Algorithm.SJF, ComparisonRunner.Algorithm.RR);
+                        for (int f = 0; f < 2; f++)
+                            for (int k = 0; k < 2; k++) assertSameResult(once[f][k], twice[f][k]);
+                        assertEquals(2, shared.stats().entries);
+                        assertEquals(8, shared.stats().memoryHits + shared.stats().misses);
+                    }
+                })
+        );
+
+        DynamicTest tiers = DynamicTest.dynamicTest("Result cache LRU and disk tier", () -> {
+            Workload w = new WorkloadGenerator().processes(200).seed(31).generate();
+            List<WorkloadFile> quanta = new ArrayList<>();
+            for (int q = 1; q <= 5; q++) {
+                WorkloadFile f = new WorkloadFile();
+                f.workload = w;
+                f.contextSwitch = 1;
+                f.rrQuantum = q;
+                quanta.add(f);
+            }
+            ComparisonRunner.Algorithm rr = ComparisonRunner.Algorithm.RR;
+
+            // Room for three results: the least recently used goes first
+            long[] weight = new long[4];
+            for (int k = 0; k < 4; k++) weight[k] = 1 + 200 + RoundRobin.simulateRR(w, k + 1, 1).executionOrder.size();
+            ResultCache lru = new ResultCache(Math.max(weight[0] + weight[1] + weight[2], weight[0] + weight[2] + weight[3]));
+            lru.simulate(quanta.get(0), rr);
+            lru.simulate(quanta.get(1), rr);
+            lru.simulate(quanta.get(2), rr);
+            assertEquals(0, lru.stats().evictions);
+            lru.simulate(quanta.get(0), rr);             // now q=2 is the oldest
+            lru.simulate(quanta.get(3), rr);
+            assertEquals(1, lru.stats().evictions);
+            assertEquals(weight[0] + weight[2] + weight[3], lru.stats().weight);
+            long misses = lru.stats().misses;
+            lru.simulate(quanta.get(0), rr);
+            lru.simulate(quanta.get(2), rr);
+            assertEquals(misses, lru.stats().misses);
+            lru.simulate(quanta.get(1), rr);
+            assertEquals(misses + 1, lru.stats().misses);
+
+            // The disk tier outlives the memory tier and the process
+            Path dir = Files.createTempDirectory("results");
+            ResultCache disk = new ResultCache(1 << 20, dir);
+            for (WorkloadFile f : quanta) disk.simulate(f, rr);
+            WorkloadFile agFile = new WorkloadFile();
+            agFile.workload = w;
+            SJFResult agResult = disk.simulate(agFile, ComparisonRunner.Algorithm.AG);
+
+            ResultCache reopened = new ResultCache(1 << 20, dir);
+            for (WorkloadFile f : quanta) {
+                SJFResult stored = reopened.simulate(f, rr);
+                SJFResult fresh = RoundRobin.simulateRR(w, f.rrQuantum, 1);
+                assertSameResult(fresh, stored);
+                assertEquals(fresh.latency.toString(), stored.latency.toString());
+            }
+            SJFResult agStored = reopened.simulate(agFile, ComparisonRunner.Algorithm.AG);
+            assertTrue(agStored instanceof AGResult);
+            assertSameResult(agResult, agStored);
+            for (int r = 0; r < w.size(); r++)
+                assertEquals(agResult.processResults.get(r).quantumHistory, agStored.processResults.get(r).quantumHistory);
+            assertEquals(6, reopened.stats().diskHits);
+            assertEquals(0, reopened.stats().misses);
+
+            // Another engine version misses everything and prunes the old files
+            ResultCache newer = new ResultCache(1 << 20, dir, ResultCache.ENGINE_VERSION + 1);
+            newer.simulate(quanta.get(0), rr);
+            assertEquals(1, newer.stats().misses);
+            assertEquals(6, newer.prune());
+            assertEquals(0, newer.prune());
+
+            try (Stream<Path> walk = Files.walk(dir)) {
+                walk.sorted(Comparator.reverseOrder()).forEach(p -> p.toFile().delete());
+            }
+        });
+
+        return Stream.concat(files, Stream.of(tiers));
+    }
+
     // ====================== UTIL ======================
-    private TestFile load(String path) throws Exception {
-        FileReader reader = new FileReader(path);
-        TestFile tf = gson.fromJson(reader, TestFile.class);
-        reader.close();
+    // Streams the workload in, each process only once the clock has reached
+    // its arrival, and checks every completion against a batch run
+    private void assertSameAsBatch(Workload w, int contextSwitch, int capacity,
+                                   Function<SimulationCore, SchedulingPolicy> policy) {
+        SimulationCore batch = new SimulationCore(w, contextSwitch, TimelineSink.DISCARD);
+        batch.run(policy.apply(batch));
+        int[] waiting = batch.waiting(), turnaround = batch.turnaround();
+
+        Map<String, OnlineSimulator.Completion> done = new HashMap<>();
+        OnlineSimulator sim = new OnlineSimulator(capacity, contextSwitch, null, policy,
+                c -> done.put(c.name + "@" + c.arrival, c));
+        for (int row : w.byArrival()) {
+            sim.advanceTo(w.arrival(row));
+            sim.submit(w.name(row), w.arrival(row), w.burst(row), w.priority(row), w.quantum(row));
+        }
+        sim.drain();
+
+        assertEquals(0, sim.inFlight());
+        assertEquals(w.size(), done.size());
+        for (int r = 0; r < w.size(); r++) {
+            OnlineSimulator.Completion c = done.get(w.name(r) + "@" + w.arrival(r));
+            assertNotNull(c, w.name(r));
+            assertEquals(waiting[r], c.waitingTime, w.name(r) + " waiting");
+            assertEquals(turnaround[r], c.turnaroundTime, w.name(r) + " turnaround");
+        }
+    }
+
+    // No CPU runs two slices at once, no process runs before its arrival or on
+    // two CPUs at once, and each gets exactly its burst
+    private void assertTickAccounting(Workload w, int contextSwitch,
+                                      Function<SimulationCore, SchedulingPolicy> policy) {
+        SimulationCore core = new SimulationCore(w, contextSwitch, null);
+        core.run(policy.apply(core));
+        RunMetrics m = core.metrics();
+
+        long busy = 0;
+        int end = 0;
+        for (int r = 0; r < w.size(); r++) {
+            busy += w.burst(r);
+            end = Math.max(end, core.completionTime(r));
+        }
+        assertEquals(1, m.get(RunMetrics.Counter.RUNS));
+        assertEquals(end, m.get(RunMetrics.Counter.SIMULATED_TICKS));
+        assertEquals(core.contextSwitches(), m.get(RunMetrics.Counter.CONTEXT_SWITCHES));
+        assertEquals(m.get(RunMetrics.Counter.SIMULATED_TICKS), m.get(RunMetrics.Counter.IDLE_TICKS) + busy
+                + (long) contextSwitch * m.get(RunMetrics.Counter.CONTEXT_SWITCHES));
+        assertTrue(m.get(RunMetrics.Counter.EVENTS) > 0);
+        assertTrue(m.get(RunMetrics.Counter.READY_HIGH_WATER) >= 1);
+    }
+
+    // Checkpoints every interval ticks, going on each time in a new core
+    private void assertSameAfterResume(Workload w, int contextSwitch, int interval,
+                                       Function<SimulationCore, SchedulingPolicy> policy)
+            throws IOException {
+        RleTimeline expected = new RleTimeline();
+        SimulationCore whole = new SimulationCore(w, contextSwitch, expected);
+        whole.run(policy.apply(whole));
+
+        // One sink across all the cores, as it would outlive them
+        RleTimeline trace = new RleTimeline();
+        SimulationCore core = new SimulationCore(w, contextSwitch, trace);
+        core.attach(policy.apply(core));
+        for (int limit = interval; !core.finished(); limit += interval) {
+            core.advance(limit);
+            ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+            Checkpoint.save(core, w, new DataOutputStream(bytes));
+
+            core = new SimulationCore(w, contextSwitch, trace);
+            core.attach(policy.apply(core));
+            Checkpoint.restore(core, w, new DataInputStream(
+                    new ByteArrayInputStream(bytes.toByteArray())));
+        }
+
+        assertSameTimeline(expected, trace);
+        assertEquals(whole.contextSwitches(), core.contextSwitches());
+        assertEquals(whole.metrics().toString(), core.metrics().toString());
+        assertEquals(whole.latency().toString(), core.latency().toString());
+        for (int r = 0; r < w.size(); r++) {
+            assertEquals(whole.completionTime(r), core.completionTime(r), w.name(r));
+            if (whole.policy() instanceof AGPolicy)
+                assertArrayEquals(((AGPolicy) whole.policy()).quantumHistory(r),
+                        ((AGPolicy) core.policy()).quantumHistory(r), w.name(r));
+        }
+    }
+
+    private void assertValidSmpSchedule(Workload w, SmpSimulator.Result result) {
+        int[] ran = new int[w.size()];
+        List<int[]> slices = new ArrayList<>();
+        for (RleTimeline t : result.timelines) {
+            for (int j = 0; j < t.size(); j++) {
+                if (j > 0) assertTrue(t.start(j) >= t.end(j - 1), "CPU overlap at " + t.start(j));
+                assertTrue(t.start(j) >= w.arrival(t.pid(j)), w.name(t.pid(j)) + " ran before arrival");
+                ran[t.pid(j)] += t.end(j) - t.start(j);
+                slices.add(new int[] { t.pid(j), t.start(j), t.end(j) });
+            }
+        }
+        for (int r = 0; r < w.size(); r++) assertEquals(w.burst(r), ran[r], w.name(r) + " run time");
+
+        slices.sort((a, b) -> a[0] != b[0] ? Integer.compare(a[0], b[0]) : Integer.compare(a[1], b[1]));
+        for (int j = 1; j < slices.size(); j++)
+            if (slices.get(j)[0] == slices.get(j - 1)[0])
+                assertTrue(slices.get(j)[1] >= slices.get(j - 1)[2],
+                        w.name(slices.get(j)[0]) + " ran on two CPUs at " + slices.get(j)[1]);
+        assertEquals(w.size(), result.processResults.size());
+    }
+
+    private void assertSameTimes(SJFResult expected, SJFResult actual) {
+        assertEquals(expected.processResults.size(), actual.processResults.size());
+        for (int j = 0; j < expected.processResults.size(); j++) {
+            assertEquals(expected.processResults.get(j).waitingTime, actual.processResults.get(j).waitingTime);
+            assertEquals(expected.processResults.get(j).turnaroundTime, actual.processResults.get(j).turnaroundTime);
+        }
+        assertEquals(expected.avgWait, actual.avgWait, 0.01);
+        assertEquals(expected.avgTAT, actual.avgTAT, 0.01);
+    }
+
+    // Every index answer against a plain owner-per-tick array
+    private void assertIndexMatchesTicks(RleTimeline timeline, SplittableRandom rnd, int queries) {
+        int end = timeline.size() == 0 ? 0 : timeline.end(timeline.size() - 1);
+        int[] owner = new int[end + 2];
+        Arrays.fill(owner, -1);
+        for (int j = 0; j < timeline.size(); j++)
+            for (int t = timeline.start(j); t < timeline.end(j); t++) owner[t] = timeline.pid(j);
+
+        TimelineIndex index = timeline.index();
+        for (int t = 0; t < owner.length; t++) assertEquals(owner[t], index.pidAt(t), "t=" + t);
+        assertEquals(-1, index.pidAt(-1));
+
+        for (int q = 0; q < queries; q++) {
+            int from = rnd.nextInt(owner.length), to = from + rnd.nextInt(owner.length - from + 1);
+            int pid = rnd.nextInt(index.processes() + 1);
+            long busy = 0, mine = 0;
+            for (int t = from; t < to; t++) {
+                if (owner[t] != -1) busy++;
+                if (owner[t] == pid) mine++;
+            }
+            assertEquals(busy, index.busyTime(from, to), "busy [" + from + ", " + to + ")");
+            assertEquals(mine, index.cpuTime(pid, from, to), "pid " + pid + " [" + from + ", " + to + ")");
+
+            long[] windowed = new long[1];
+            index.window(from, to, (p, s, e) -> {
+                assertTrue(s >= from && e <= to && s < e);
+                windowed[0] += e - s;
+            });
+            assertEquals(busy, windowed[0]);
+        }
+    }
+
+    // The run's histograms against exact values: waiting and turnaround from
+    // its results, response from the first slice of each process in timeline
+    private void assertLatencyMatches(Workload w, SJFResult result, RleTimeline timeline) {
+        int n = w.size();
+        int[] waiting = new int[n], turnaround = new int[n], response = new int[n];
+        Arrays.fill(response, -1);
+        for (int r = 0; r < n; r++) {
+            waiting[r] = result.processResults.get(r).waitingTime;
+            turnaround[r] = result.processResults.get(r).turnaroundTime;
+        }
+        for (int k = 0; k < timeline.size(); k++) {
+            int p = timeline.pid(k);
+            if (response[p] == -1) response[p] = timeline.start(k) - w.arrival(p);
+        }
+        assertHistogramMatches(waiting, result.latency.waiting);
+        assertHistogramMatches(turnaround, result.latency.turnaround);
+        assertHistogramMatches(response, result.latency.response);
+    }
+
+    // Exact count, mean and max; nearest-rank percentiles no lower than the
+    // true value and at most 1/64 above it
+    private void assertHistogramMatches(int[] values, LatencyHistogram h) {
+        int[] sorted = values.clone();
+        Arrays.sort(sorted);
+        long sum = 0;
+        for (int v : sorted) sum += v;
+        assertEquals(sorted.length, h.count());
+        assertEquals((double) sum / sorted.length, h.mean(), 1e-9);
+        assertEquals(sorted[sorted.length - 1], h.max());
+        for (double p : LatencyStats.PERCENTILES) {
+            int exact = sorted[Math.max(0, (int) Math.ceil(p / 100 * sorted.length) - 1)];
+            int got = h.percentile(p);
+            assertTrue(got >= exact && got <= exact + exact / 64, "p" + p + ": " + got + " vs " + exact);
+        }
+        assertEquals(sorted[sorted.length - 1], h.percentile(100));
+    }
+
+    private void assertSameWorkload(Workload expected, Workload actual) {
+        assertEquals(expected.size(), actual.size());
+        for (int r = 0; r < expected.size(); r++) {
+            assertEquals(expected.name(r), actual.name(r));
+            assertEquals(expected.arrival(r), actual.arrival(r));
+            assertEquals(expected.burst(r), actual.burst(r));
+            assertEquals(expected.priority(r), actual.priority(r));
+            assertEquals(expected.quantum(r), actual.quantum(r));
+        }
+    }
+
+    // good with the int at offset replaced by value must not map
+    private void assertCorruptRefused(Path bin, byte[] good, int offset, int value) throws IOException {
+        byte[] bad = good.clone();
+        writeInt(bad, offset, value);
+        Files.write(bin, bad);
+        assertThrows(IOException.class, () -> BinaryWorkload.map(bin.toString()), "int at " + offset + " = " + value);
+    }
+
+    private static int readInt(byte[] b, int offset) {
+        return ByteBuffer.wrap(b).order(ByteOrder.LITTLE_ENDIAN).getInt(offset);
+    }
+
+    private static void writeInt(byte[] b, int offset, int value) {
+        ByteBuffer.wrap(b).order(ByteOrder.LITTLE_ENDIAN).putInt(offset, value);
+    }
+
+    private void assertSameAsSerial(ComparisonRunner runner, List<WorkloadFile> files,
+                                    ComparisonRunner.Algorithm... algorithms) {
+        SJFResult[][] results = runner.run(files, algorithms);
+
+        // Same as running each pair serially, in the same order
+        for (int f = 0; f < files.size(); f++)
+            for (int a = 0; a < algorithms.length; a++)
+                assertSameResult(ComparisonRunner.simulate(files.get(f), algorithms[a]),
+                        results[f][a]);
+    }
+
+    private void assertSameTimeline(RleTimeline expected, RleTimeline actual) {
+        assertEquals(expected.size(), actual.size());
+        for (int j = 0; j < expected.size(); j++) {
+            assertEquals(expected.pid(j), actual.pid(j));
+            assertEquals(expected.start(j), actual.start(j));
+            assertEquals(expected.end(j), actual.end(j));
+        }
+    }
+
+    // Slices in time order, never overlapping, each row runs exactly its burst
+    private void assertValidTimeline(Workload w, RleTimeline t) {
+        int[] ran = new int[w.size()];
+        for (int j = 0; j < t.size(); j++) {
+            assertTrue(t.start(j) < t.end(j));
+            assertTrue(t.start(j) >= w.arrival(t.pid(j)));
+            if (j > 0) assertTrue(t.end(j - 1) <= t.start(j));
+            ran[t.pid(j)] += t.end(j) - t.start(j);
+        }
+        for (int r = 0; r < w.size(); r++) assertEquals(w.burst(r), ran[r]);
+    }
+
+    private void assertResult(SJFExpected expected, SJFResult actual) {
+        assertEquals(expected.executionOrder, actual.executionOrder);
+
+        for (int j = 0; j < expected.processResults.size(); j++) {
+            assertEquals(
+                    expected.processResults.get(j).waitingTime,
+                    actual.processResults.get(j).waitingTime
+            );
+            assertEquals(
+                    expected.processResults.get(j).turnaroundTime,
+                    actual.processResults.get(j).turnaroundTime
+            );
+        }
+
+        assertEquals(expected.averageWaitingTime, actual.avgWait, 0.01);
+        assertEquals(expected.averageTurnaroundTime, actual.avgTAT, 0.01);
+    }
+
+    private void assertSameResult(SJFResult expected, SJFResult actual) {
+        assertEquals(expected.executionOrder, actual.executionOrder);
+
+        for (int j = 0; j < expected.processResults.size(); j++) {
+            assertEquals(
+                    expected.processResults.get(j).waitingTime,
+                    actual.processResults.get(j).waitingTime
+            );
+            assertEquals(
+                    expected.processResults.get(j).turnaroundTime,
+                    actual.processResults.get(j).turnaroundTime
+            );
+        }
+
+        assertEquals(expected.avgWait, actual.avgWait, 0.01);
+        assertEquals(expected.avgTAT, actual.avgTAT, 0.01);
+    }
+
+    private static SJFExpected expectedOf(SJFResult result) {
+        SJFExpected e = new SJFExpected();
+        e.executionOrder = result.executionOrder;
+        e.processResults = result.processResults;
+        e.averageWaitingTime = result.avgWait;
+        e.averageTurnaroundTime = result.avgTAT;
+        return e;
+    }
+
+    // Every fixture file in test_cases_v3/dir, in natural order
+    private static Stream<Path> fixtures(String dir) {
+        try {
+            return SuiteRunner.discover(Paths.get("test_cases_v3", dir)).stream();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    // test_N with AG_testN, by position in natural order
+    private static Stream<Path[]> fixturePairs() {
+        List<Path> others = fixtures("Other_Schedulers").collect(Collectors.toList());
+        List<Path> ags = fixtures("AG").collect(Collectors.toList());
+        return IntStream.range(0, Math.min(others.size(), ags.size()))
+                .mapToObj(i -> new Path[] { others.get(i), ags.get(i) });
+    }
+
+    private static WorkloadFile cached(Path path) throws IOException {
+        return FILES.get(path);
+    }
+
+    // A cached fixture in the shape Gson binds, for the factories that drive
+    // the List<ProcessInput> entry points
+    private static TestFile load(Path path) throws IOException {
+        WorkloadFile wf = cached(path);
+        TestFile tf = new TestFile();
+        tf.input = new Input();
+        tf.input.contextSwitch = wf.contextSwitch;
+        tf.input.rrQuantum = wf.rrQuantum;
+        tf.input.agingInterval = wf.agingInterval;
+        tf.input.processes = inputs(wf.workload);
+        tf.expectedOutput = wf.expectedOutput;
         return tf;
     }
+
+    private static List<ProcessInput> inputs(Workload w) {
+        List<ProcessInput> inputs = new ArrayList<>(w.size());
+        for (int r = 0; r < w.size(); r++) {
+            ProcessInput in = new ProcessInput();
+            in.name = w.name(r);
+            in.arrival = w.arrival(r);
+            in.burst = w.burst(r);
+            in.priority = w.priority(r);
+            in.quantum = w.quantum(r);
+            inputs.add(in);
+        }
+        return inputs;
+    }
 }
@@ -0,0 +1,97 @@
+import java.io.*;
+import java.util.Arrays;
+
+// ======================= LATENCY HISTOGRAM =======================
+// Fixed-memory log-linear histogram of non-negative ints, in the style of
+// HdrHistogram: values below 128 get a counter each, and above that every
+// power of two is split into 64 equal buckets. A percentile is then reported
+// within 1/64 (under 1.6%) of the true value, exact below 128, and the whole
+// int range takes 1664 counters however many values are recorded. Count,
+// min, max and mean are exact.
+final class LatencyHistogram {
+
+    private static final int SUB_BITS = 7;
+    private static final int SUB = 1 << SUB_BITS;    // exact values
+    private static final int HALF = SUB >> 1;        // buckets per power of two above them
+    private static final int BUCKETS = SUB + (31 - SUB_BITS) * HALF;
+
+    private final long[] counts = new long[BUCKETS];
+    private long count, sum;
+    private int min = Integer.MAX_VALUE, max;
+
+    void record(int value) {
+        if (value < 0) throw new IllegalArgumentException("negative latency " + value);
+        counts[index(value)]++;
+        count++;
+        sum += value;
+        if (value < min) min = value;
+        if (value > max) max = value;
+    }
+
+    long count() { return count; }
+    int min() { return count == 0 ? 0 : min; }
+    int max() { return max; }
+    double mean() { return count == 0 ? 0 : (double) sum / count; }
+
+    // Smallest recorded value (to bucket precision) with at least p percent of
+    // the values at or below it; p = 100 gives the exact max
+    int percentile(double p) {
+        if (count == 0) return 0;
+        long target = Math.max(1, (long) Math.ceil(p / 100 * count));
+        long seen = 0;
+        for (int i = 0; i < BUCKETS; i++) {
+            seen += counts[i];
+            if (seen >= target) return Math.min(highest(i), max);
+        }
+        return max;
+    }
+
+    void merge(LatencyHistogram other) {
+        for (int i = 0; i < BUCKETS; i++) counts[i] += other.counts[i];
+        count += other.count;
+        sum += other.sum;
+        min = Math.min(min, other.min);
+        max = Math.max(max, other.max);
+    }
+
+    // Only the non-empty buckets, as (index, count) pairs
+    void save(DataOutput out) throws IOException {
+        out.writeLong(count);
+        out.writeLong(sum);
+        out.writeInt(min);
+        out.writeInt(max);
+        int used = 0;
+        for (long c : counts) if (c != 0) used++;
+        out.writeInt(used);
+        for (int i = 0; i < BUCKETS; i++) {
+            if (counts[i] == 0) continue;
+            out.writeShort(i);
+            out.writeLong(counts[i]);
+        }
+    }
+
+    void restore(DataInput in) throws IOException {
+        count = in.readLong();
+        sum = in.readLong();
+        min = in.readInt();
+        max = in.readInt();
+        Arrays.fill(counts, 0);
+        for (int used = in.readInt(); used > 0; used--) counts[in.readUnsignedShort()] = in.readLong();
+    }
+
+    // --- Helpers ---
+
+    private static int index(int value) {
+        if (value < SUB) return value;
+        int shift = 31 - Integer.numberOfLeadingZeros(value) - SUB_BITS + 1;   // >= 1
+        return SUB + (shift - 1) * HALF + ((value >>> shift) - HALF);
+    }
+
+    // Largest value that lands in bucket i
+    private static int highest(int i) {
+        if (i < SUB) return i;
+        int shift = (i - SUB) / HALF + 1;
+        long low = (long) ((i - SUB) % HALF + HALF) << shift;
+        return (int) Math.min(Integer.MAX_VALUE, low + (1L << shift) - 1);
+    }
+}
@@ -0,0 +1,59 @@
+import java.io.*;
+
+// ======================= LATENCY STATS =======================
+// Tail latency of one run, gathered while it runs: waiting and turnaround
+// time when a process completes, response time (first dispatch minus
+// arrival) when it first gets the CPU. Each goes into a LatencyHistogram, so
+// a million-process run gets its percentiles from three fixed-size tables
+// instead of sorting its results.
+final class LatencyStats {
+
+    static final double[] PERCENTILES = { 50, 90, 99, 99.9 };
+    private static final String[] LABELS = { "p50", "p90", "p99", "p99.9" };
+
+    final LatencyHistogram waiting = new LatencyHistogram();
+    final LatencyHistogram turnaround = new LatencyHistogram();
+    final LatencyHistogram response = new LatencyHistogram();
+
+    void completed(int turnaroundTime, int burst) {
+        turnaround.record(turnaroundTime);
+        waiting.record(turnaroundTime - burst);
+    }
+
+    void dispatched(int responseTime) {
+        response.record(responseTime);
+    }
+
+    void merge(LatencyStats other) {
+        waiting.merge(other.waiting);
+        turnaround.merge(other.turnaround);
+        response.merge(other.response);
+    }
+
+    void save(DataOutput out) throws IOException {
+        waiting.save(out);
+        turnaround.save(out);
+        response.save(out);
+    }
+
+    void restore(DataInput in) throws IOException {
+        waiting.restore(in);
+        turnaround.restore(in);
+        response.restore(in);
+    }
+
+    // One line per measure: p50 / p90 / p99 / p99.9 / max
+    @Override
+    public String toString() {
+        return line("Waiting", waiting) + "\n" + line("Turnaround", turnaround) + "\n" + line("Response", response);
+    }
+
+    // --- Helpers ---
+
+    private static String line(String label, LatencyHistogram h) {
+        StringBuilder sb = new StringBuilder(String.format("%-10s", label));
+        for (int i = 0; i < PERCENTILES.length; i++)
+            sb.append(' ').append(LABELS[i]).append('=').append(h.percentile(PERCENTILES[i]));
+        return sb.append(" max=").append(h.max()).toString();
+    }
+}
@@ -1,7 +1,7 @@
 // ======================= IMPORTS =======================
-import com.google.gson.Gson;
-import java.io.FileReader;
 import java.util.*;
+import java.io.File;
+import java.nio.file.Path;
 import java.nio.file.Paths;
 
 // ======================= MAIN =======================
@@ -10,7 +10,6 @@ public class Main {
     public static void main(String[] args) throws Exception {
 
         Scanner sc = new Scanner(System.in);
-        Gson gson = new Gson();
 
         System.out.println("============================================");
         System.out.println("CPU Scheduling Simulator");
@@ -25,6 +24,9 @@ public class Main {
         System.out.println("2 - Enter processes manually (SJF & RR)");
         System.out.println("3 - Run AG Scheduler (Manual)");
         System.out.println("4 - Run Compare test Manual ");
+        System.out.println("5 - Run parameter sweep (RR & Priority)");
+        System.out.println("6 - Generate a synthetic workload file");
+        System.out.println("7 - Convert a workload file to binary");
 
 
 
@@ -39,7 +41,13 @@ public class Main {
         } else if (choice == 3) {
             runAG(sc);
         } else if (choice == 4) {
-            runUnitTests(gson);
+            runUnitTests();
+        } else if (choice == 5) {
+            runSweep(sc);
+        } else if (choice == 6) {
+            runGenerator(sc);
+        } else if (choice == 7) {
+            runConvert(sc);
         } else {
             System.out.println("Invalid choice ");
         }
@@ -58,7 +66,7 @@ public class Main {
         System.out.print("Enter aging interval (0 for no aging): ");
         int agingInterval = sc.nextInt();
 
-        ArrayList<Process> processes = new ArrayList<>();
+        Workload.Builder processes = new Workload.Builder(n);
 
         for (int i = 0; i < n; i++) {
             System.out.println("\nProcess " + (i + 1));
@@ -75,11 +83,11 @@ public class Main {
             System.out.print("Priority (lower = higher priority): ");
             int priority = sc.nextInt();
 
-            processes.add(new Process(name, arrival, burst, priority));
+            processes.add(name, arrival, burst, priority, 0);
         }
 
         SJFResult priority = PreemptivePriority.simulatePriority(
-                cloneProcesses(processes), cs, agingInterval);
+                processes.build(), cs, agingInterval);
 
         System.out.println("\n========= PRIORITY SCHEDULING OUTPUT =========");
         System.out.println("Execution Order: " + priority.executionOrder);
@@ -90,6 +98,7 @@ public class Main {
         }
         System.out.printf("\nAverage Waiting Time: %.2f%n", priority.avgWait);
         System.out.printf("Average Turnaround Time: %.2f%n", priority.avgTAT);
+        System.out.println(priority.latency);
     }
 
     // ================= RUN MANUAL RR =================
@@ -104,7 +113,7 @@ public class Main {
         System.out.print("Enter RR quantum: ");
         int quantum = sc.nextInt();
 
-        ArrayList<Process> processes = new ArrayList<>();
+        Workload.Builder builder = new Workload.Builder(n);
 
         for (int i = 0; i < n; i++) {
             System.out.println("\nProcess " + (i + 1));
@@ -121,11 +130,14 @@ public class Main {
             System.out.print("Priority: ");
             int priority = sc.nextInt();
 
-            processes.add(new Process(name, arrival, burst, priority));
+            builder.add(name, arrival, burst, priority, 0);
         }
 
+        // Both algorithms read the same workload, no copies needed
+        Workload processes = builder.build();
+
         // ======= RUN PREEMPTIVE SJF =======
-        SJFResult sjf = PreemptiveSJF.simulateSJF(cloneProcesses(processes), cs);
+        SJFResult sjf = PreemptiveSJF.simulateSJFEvents(processes, cs);
 
         System.out.println("\n========= SJF OUTPUT =========");
         System.out.println("Execution Order: " + sjf.executionOrder);
@@ -136,9 +148,10 @@ public class Main {
         }
         System.out.printf("\nAverage Waiting Time: %.2f%n", sjf.avgWait);
         System.out.printf("Average Turnaround Time: %.2f%n", sjf.avgTAT);
+        System.out.println(sjf.latency);
 
         // ======= RUN ROUND ROBIN =======
-        SJFResult rr = RoundRobin.simulateRR(cloneProcesses(processes), quantum, cs);
+        SJFResult rr = RoundRobin.simulateRR(processes, quantum, cs);
 
         System.out.println("\n========= ROUND ROBIN OUTPUT =========");
         System.out.println("Execution Order: " + rr.executionOrder);
@@ -149,6 +162,7 @@ public class Main {
         }
         System.out.printf("\nAverage Waiting Time: %.2f%n", rr.avgWait);
         System.out.printf("Average Turnaround Time: %.2f%n", rr.avgTAT);
+        System.out.println(rr.latency);
     }
 
 
@@ -189,92 +203,98 @@ public class Main {
         }
         System.out.printf("Average Waiting Time: %.2f%n", result.avgWait);
         System.out.printf("Average Turnaround Time: %.2f%n", result.avgTAT);
+        System.out.println(result.latency);
     }
 
-    // ================= UNIT TEST MODE (WITH PASS/FAIL) =================
-    static void runUnitTests(Gson gson) throws Exception {
-
-        System.out.println("\n========== UNIT TEST MODE ==========");
-        System.out.println("Reading expected & actual from JSON files\n");
-
-        /* ============ SJF & RR UNIT TESTS ============ */
-        for (int i = 1; i <= 6; i++) {
-
-            String filePath =
-                    "test_cases_v3/Other_Schedulers/test_" + i + ".json";
-
-            System.out.println("\n--- FILE: test_" + i + ".json ---");
-
-            FileReader reader = new FileReader(filePath);
-            TestFile testFile = gson.fromJson(reader, TestFile.class);
-            reader.close();
-
-            int cs = testFile.input.contextSwitch;
-            int quantum = testFile.input.rrQuantum;
-            int agingInterval = testFile.input.agingInterval != null ?
-                    testFile.input.agingInterval : 0;
-
-            ArrayList<Process> base =
-                    buildProcesses(testFile.input.processes);
+    // ================= PARAMETER SWEEP =================
+    static void runSweep(Scanner sc) throws Exception {
+        System.out.print("\nWorkload JSON file: ");
+        WorkloadFile file = WorkloadReader.read(sc.next());
+
+        System.out.println("Ranges are from[:to[:step]], e.g. 1:10 or 0:20:5");
+        System.out.print("RR quantum range: ");
+        ParameterSweep.Range quanta = ParameterSweep.Range.parse(sc.next());
+        System.out.print("Context switch range: ");
+        ParameterSweep.Range switches = ParameterSweep.Range.parse(sc.next());
+        System.out.print("Aging interval range (0 = no aging): ");
+        ParameterSweep.Range aging = ParameterSweep.Range.parse(sc.next());
+
+        // One parsed workload shared by every grid point
+        List<ParameterSweep.Point> points = new ArrayList<>();
+        for (int c = 0; c < switches.size(); c++)
+            points.addAll(ParameterSweep.sweepRR(file.workload, quanta, switches.get(c)));
+        points.addAll(ParameterSweep.sweepPriority(file.workload, switches, aging));
+
+        System.out.println("\n========= PARAMETER SWEEP (" + file.workload.size() + " processes) =========");
+        ParameterSweep.writeTable(points, System.out);
+    }
 
-            // ===== SJF =====
-            SJFResult sjf =
-                    PreemptiveSJF.simulateSJF(cloneProcesses(base), cs);
+    // ================= WORKLOAD GENERATOR =================
+    static void runGenerator(Scanner sc) throws Exception {
+        System.out.print("\nNumber of processes: ");
+        int n = sc.nextInt();
+        System.out.print("Seed: ");
+        long seed = sc.nextLong();
+        System.out.print("Arrivals (poisson / bursty): ");
+        WorkloadGenerator.Arrivals arrivals =
+                WorkloadGenerator.Arrivals.valueOf(sc.next().toUpperCase());
+        System.out.print("Mean gap between arrivals: ");
+        double gap = sc.nextDouble();
+        System.out.print("Bursts (uniform / exponential / pareto): ");
+        WorkloadGenerator.Bursts bursts =
+                WorkloadGenerator.Bursts.valueOf(sc.next().toUpperCase());
+        System.out.print("Mean burst: ");
+        double meanBurst = sc.nextDouble();
+        System.out.print("Output file: ");
+        String path = sc.next();
+
+        new WorkloadGenerator()
+                .processes(n)
+                .seed(seed)
+                .arrivals(arrivals, gap)
+                .bursts(bursts, meanBurst)
+                .writeJson(path, "generated_" + n + "_seed" + seed);
+
+        System.out.println("Wrote " + n + " processes to " + path);
+    }
 
-            printCompareWithPassFail("SJF", sjf, testFile.expectedOutput.SJF);
+    // ================= CONVERT TO BINARY =================
+    static void runConvert(Scanner sc) throws Exception {
+        System.out.print("\nJSON workload file: ");
+        String in = sc.next();
+        System.out.print("Output file (" + BinaryWorkload.EXTENSION + "): ");
+        String out = sc.next();
 
-            // ===== RR =====
-            SJFResult rr =
-                    RoundRobin.simulateRR(cloneProcesses(base), quantum, cs);
+        BinaryWorkload.convert(in, out);
+        System.out.println("Wrote " + BinaryWorkload.map(out).workload.size()
+                + " processes to " + out + " (" + new File(out).length() + " bytes)");
+    }
 
-            printCompareWithPassFail("RR", rr, testFile.expectedOutput.RR);
+    // ================= UNIT TEST MODE (WITH PASS/FAIL) =================
+    static void runUnitTests() throws Exception {
 
-            // ===== PRIORITY =====
-            if (testFile.expectedOutput.Priority != null) {
-                SJFResult priority =
-                        PreemptivePriority.simulatePriority(
-                                cloneProcesses(base), cs, agingInterval);
+        System.out.println("\n========== UNIT TEST MODE ==========");
+        System.out.println("Reading expected & actual from JSON files\n");
 
-                printCompareWithPassFail("PRIORITY", priority,
-                        testFile.expectedOutput.Priority);
-            }
+        // Every JSON file under the folder, each parsed once and checked in
+        // parallel; printing stays serial and in discovery order
+        Path root = Paths.get("test_cases_v3");
+        SuiteRunner.Report report;
+        try (SuiteRunner suite = new SuiteRunner(new WorkloadCache())) {
+            report = suite.run(root);
         }
 
-        /* ============ AG UNIT TESTS ============ */
-        for (int i = 1; i <= 6; i++) {
-
-            String filePath =
-                    "test_cases_v3/AG/AG_test" + i + ".json";
-
-            System.out.println("\n--- FILE: AG_test" + i + ".json ---");
-
-            FileReader reader = new FileReader(filePath);
-            TestFile testFile = gson.fromJson(reader, TestFile.class);
-            reader.close();
-
-            if (testFile.expectedOutput.AG == null &&
-                    testFile.expectedOutput.executionOrder != null) {
-
-                testFile.expectedOutput.AG = new SJFExpected();
-                testFile.expectedOutput.AG.executionOrder =
-                        testFile.expectedOutput.executionOrder;
-                testFile.expectedOutput.AG.processResults =
-                        testFile.expectedOutput.processResults;
-                testFile.expectedOutput.AG.averageWaitingTime =
-                        testFile.expectedOutput.averageWaitingTime;
-                testFile.expectedOutput.AG.averageTurnaroundTime =
-                        testFile.expectedOutput.averageTurnaroundTime;
+        Path current = null;
+        for (SuiteRunner.Check check : report.checks) {
+            if (!check.file.equals(current)) {
+                current = check.file;
+                System.out.println("\n--- FILE: " + current.getFileName() + " ---");
             }
-
-            int cs = testFile.input.contextSwitch;
-
-            ArrayList<AGProcess> ag =
-                    buildAGProcesses(testFile.input.processes);
-
-            AGScheduler scheduler = new AGScheduler(ag);
-            AGResult result = scheduler.simulate();
-            printCompareWithPassFail("AG", result, testFile.expectedOutput.AG);
+            printCompareWithPassFail(check.algorithm.name(), check.actual, check.expected);
         }
+
+        System.out.printf("%n========== %d files, %d checks: %d passed, %d failed ==========%n",
+                report.files, report.checks.size(), report.passed(), report.failed());
     }
 
     // ============ PRINT COMPARISON WITH PASS/FAIL ============
@@ -328,13 +348,6 @@ public class Main {
         return list;
     }
 
-    static ArrayList<Process> cloneProcesses(ArrayList<Process> original) {
-        ArrayList<Process> copy = new ArrayList<>();
-        for (Process p : original)
-            copy.add(new Process(p.name, p.arrival, p.burst, p.priority));
-        return copy;
-    }
-
     static ArrayList<AGProcess> buildAGProcesses(List<ProcessInput> inputs) {
         ArrayList<AGProcess> list = new ArrayList<>();
         for (ProcessInput p : inputs) {
@@ -347,91 +360,92 @@ public class Main {
 // ======================= PREEMPTIVE SJF =======================
 class PreemptiveSJF {
     static SJFResult simulateSJF(ArrayList<Process> processes, int cs) {
-        int time = 0, completed = 0;
-        String last = "";
-        List<String> order = new ArrayList<>();
         processes.sort(Comparator.comparingInt(p -> p.arrival));
+        return simulateSJF(Workload.fromProcesses(processes), cs);
+    }
+
+    static SJFResult simulateSJF(Workload w, int cs) {
+        return simulateSJF(w, cs, null);
+    }
 
-        while (completed < processes.size()) {
-            Process cur = null;
-            for (Process p : processes)
-                if (p.arrival <= time && p.remaining > 0)
-                    if (cur == null || p.remaining < cur.remaining)
-                        cur = p;
+    // One time unit per loop. Results come back in workload row order.
+    // With a sink the trace goes there and executionOrder is left empty.
+    static SJFResult simulateSJF(Workload w, int cs, TimelineSink sink) {
+        int n = w.size();
+        int[] rows = w.byArrival();
+        int[] remaining = new int[n];              // by position in arrival order
+        int[] waiting = new int[n], turnaround = new int[n];   // by row
+        for (int k = 0; k < n; k++) remaining[k] = w.burst(rows[k]);
 
-            if (cur == null) { time++; last = ""; continue; }
-            if (!last.equals("") && !last.equals(cur.name)) time += cs;
-            if (!cur.name.equals(last)) order.add(cur.name);
+        int time = 0, completed = 0;
+        int last = -1;                             // name id, -1 = nobody
+        List<String> order = new ArrayList<>();
+        LatencyStats latency = new LatencyStats();
 
-            cur.remaining--; time++; last = cur.name;
-            if (cur.remaining == 0) {
+        while (completed < n) {
+            int cur = -1;
+            for (int k = 0; k < n && w.arrival(rows[k]) <= time; k++)
+                if (remaining[k] > 0)
+                    if (cur == -1 || remaining[k] < remaining[cur])
+                        cur = k;
+
+            if (cur == -1) { time++; last = -1; continue; }
+            int name = w.nameId(rows[cur]);
+            if (last != -1 && last != name) time += cs;
+            if (name != last && sink == null) order.add(w.nameOf(name));
+
+            if (remaining[cur] == w.burst(rows[cur])) latency.dispatched(time - w.arrival(rows[cur]));
+            remaining[cur]--; time++; last = name;
+            if (sink != null) sink.slice(rows[cur], time - 1, time);
+            if (remaining[cur] == 0) {
                 completed++;
-                cur.turnaround = time - cur.arrival;
-                cur.waiting = cur.turnaround - cur.burst;
+                int r = rows[cur];
+                turnaround[r] = time - w.arrival(r);
+                waiting[r] = turnaround[r] - w.burst(r);
+                latency.completed(turnaround[r], w.burst(r));
             }
         }
-        return ResultBuilder.build(processes, order);
+        return ResultBuilder.build(w, waiting, turnaround, order, latency);
+    }
+
+    // Event-driven variant on SimulationCore: instead of one loop per time unit
+    // it jumps straight to the next arrival or completion. Output matches
+    // simulateSJF exactly; the tick loop above stays as the reference.
+    static SJFResult simulateSJFEvents(ArrayList<Process> processes, int cs) {
+        processes.sort(Comparator.comparingInt(p -> p.arrival));
+        return simulateSJFEvents(Workload.fromProcesses(processes), cs);
+    }
+
+    static SJFResult simulateSJFEvents(Workload w, int cs) {
+        return simulateSJFEvents(w, cs, null);
+    }
+
+    // Results come back in workload row order.
+    // With a sink the trace goes there and executionOrder is left empty.
+    static SJFResult simulateSJFEvents(Workload w, int cs, TimelineSink sink) {
+        SimulationCore core = new SimulationCore(w, cs, sink);
+        core.run(new SjfPolicy(core));
+        return core.result();
     }
 }
 
 // ======================= ROUND ROBIN =======================
 class RoundRobin {
     static SJFResult simulateRR(List<Process> processes, int quantum, int cs) {
-        Queue<Process> ready = new LinkedList<>();
-        List<String> order = new ArrayList<>();
-        int time = 0;
-        int completed = 0;
-        int n = processes.size();
-        int idx = 0;
-        String last = "";
         processes.sort(Comparator.comparingInt(p -> p.arrival));
+        return simulateRR(Workload.fromProcesses(processes), quantum, cs);
+    }
 
-        while (completed < n) {
-            while (idx < n && processes.get(idx).arrival <= time) {
-                ready.add(processes.get(idx));
-                idx++;
-            }
-
-            if (ready.isEmpty()) {
-                time++;
-                continue;
-            }
-
-            Process cur = ready.poll();
-
-            if (!last.isEmpty() && !cur.name.equals(last)) {
-                time += cs;
-                while (idx < n && processes.get(idx).arrival <= time) {
-                    ready.add(processes.get(idx));
-                    idx++;
-                }
-            }
-
-            order.add(cur.name);
-            last = cur.name;
-
-            int exec = Math.min(quantum, cur.remaining);
-            cur.remaining -= exec;
-            time += exec;
-
-            while (idx < n && processes.get(idx).arrival <= time) {
-                ready.add(processes.get(idx));
-                idx++;
-            }
-
-            if (cur.remaining > 0) {
-                ready.add(cur);
-            } else {
-                cur.completedTime = time;
-                completed++;
-            }
-        }
+    static SJFResult simulateRR(Workload w, int quantum, int cs) {
+        return simulateRR(w, quantum, cs, null);
+    }
 
-        for (Process p : processes) {
-            p.turnaround = p.completedTime - p.arrival;
-            p.waiting = p.turnaround - p.burst;
-        }
-        return ResultBuilder.build(processes, order);
+    // Results come back in workload row order.
+    // With a sink the trace goes there and executionOrder is left empty.
+    static SJFResult simulateRR(Workload w, int quantum, int cs, TimelineSink sink) {
+        SimulationCore core = new SimulationCore(w, cs, sink);
+        core.run(new RoundRobinPolicy(core, quantum));
+        return core.result();
     }
 }
 
@@ -444,127 +458,62 @@ class RoundRobin {
 
  class PreemptivePriorityScheduling {
 
-    List<Process> processes = new ArrayList<>();
-    List<Process> executionOrder = new ArrayList<>();
+    final Workload workload;
+    List<String> executionOrder = new ArrayList<>();   // consecutive repeats dropped
+    int[] waiting, turnaround;                         // by workload row
+    LatencyStats latency = new LatencyStats();
 
     int agingInterval;
     int contextSwitch;
+    QueueBackend backend;
+    TimelineSink sink;                                 // null: record executionOrder instead
+
+    // HEAP suits any priority range; BUCKETS is faster for small bounded priorities
+    enum QueueBackend { HEAP, BUCKETS }
 
     public PreemptivePriorityScheduling(
-            List<Process> inputProcesses,
+            Workload workload,
             int agingInterval,
             int contextSwitch
     ) {
-        this.agingInterval = agingInterval;
-        this.contextSwitch = contextSwitch;
-
-        for (Process p : inputProcesses) {
-            Process np = new Process(p.name, p.arrival, p.burst, p.priority);
-            np.tempArrival = p.arrival;
-            processes.add(np);
-        }
+        this(workload, agingInterval, contextSwitch, QueueBackend.HEAP);
     }
 
-    public void execute() {
-
-        // Min priority number = higher priority
-        PriorityQueue<Process> readyQueue = new PriorityQueue<>(
-                (p1, p2) -> {
-                    if (p1.priority != p2.priority)
-                        return Integer.compare(p1.priority, p2.priority);
-                    if (p1.arrival != p2.arrival)
-                        return Integer.compare(p1.arrival, p2.arrival);
-                    return p1.name.compareTo(p2.name);
-                }
-        );
-
-        processes.sort(Comparator.comparingInt(p -> p.arrival));
-
-        int currentTime = processes.get(0).arrival;
-        int i = 0;
-
-        // Add initially arrived processes
-        while (i < processes.size() && processes.get(i).arrival == currentTime) {
-            readyQueue.add(processes.get(i));
-            i++;
-        }
-
-        String lastProcess = "";
-
-        while (!readyQueue.isEmpty() || i < processes.size()) {
-
-            Process current = null;
-            String currentName = "Null";
-
-            if (!readyQueue.isEmpty()) {
-                current = readyQueue.poll();
-                executionOrder.add(current);
-                currentName = current.name;
-            }
-
-            // Handle context switch
-            if (!lastProcess.isEmpty() &&
-                    !lastProcess.equals(currentName) &&
-                    !lastProcess.equals("Null")) {
-
-                if (current != null)
-                    readyQueue.add(current);
-
-                for (int c = 0; c < contextSwitch; c++) {
-                    currentTime++;
-                    applyAging(readyQueue, currentTime);
-
-                    while (i < processes.size() &&
-                            processes.get(i).arrival == currentTime) {
-                        readyQueue.add(processes.get(i));
-                        i++;
-                    }
-                }
-                lastProcess = currentName;
-                continue;
-            }
-
-            lastProcess = currentName;
-            currentTime++;
-
-            if (current != null)
-                current.remaining--;
-
-            applyAging(readyQueue, currentTime);
-
-            while (i < processes.size() &&
-                    processes.get(i).arrival == currentTime) {
-                readyQueue.add(processes.get(i));
-                i++;
-            }
-
-            if (current == null)
-                continue;
+    public PreemptivePriorityScheduling(
+            Workload workload,
+            int agingInterval,
+            int contextSwitch,
+            QueueBackend backend
+    ) {
+        this(workload, agingInterval, contextSwitch, backend, null);
+    }
 
-            if (current.remaining > 0) {
-                current.tempArrival = currentTime;
-                readyQueue.add(current);
-            } else {
-                current.completedTime = currentTime;
-                current.turnaround = current.completedTime - current.arrival;
-                current.waiting = current.turnaround - current.burst;
-            }
-        }
+    public PreemptivePriorityScheduling(
+            Workload workload,
+            int agingInterval,
+            int contextSwitch,
+            QueueBackend backend,
+            TimelineSink sink
+    ) {
+        this.workload = workload;
+        this.agingInterval = agingInterval;
+        this.contextSwitch = contextSwitch;
+        this.backend = backend;
+        this.sink = sink;
     }
 
-    private void applyAging(PriorityQueue<Process> queue, int currentTime) {
-        if (agingInterval <= 0)
+    public void execute() {
+        if (workload.size() == 0) {
+            waiting = new int[0];
+            turnaround = new int[0];
             return;
-
-        List<Process> temp = new ArrayList<>(queue);
-        queue.clear();
-
-        for (Process p : temp) {
-            if ((currentTime - p.tempArrival) % agingInterval == 0) {
-                p.priority = Math.max(1, p.priority - 1);
-            }
-            queue.add(p);
         }
+        SimulationCore core = new SimulationCore(workload, contextSwitch, sink);
+        core.run(new PriorityPolicy(core, agingInterval, backend));
+        executionOrder = core.executionOrder();
+        waiting = core.waiting();
+        turnaround = core.turnaround();
+        latency = core.latency();
     }
 }
 
@@ -578,43 +527,59 @@ class RoundRobin {
             int contextSwitch,
             int agingInterval
     ) {
+        return simulatePriority(processes, contextSwitch, agingInterval,
+                PreemptivePriorityScheduling.QueueBackend.HEAP);
+    }
 
-        PreemptivePriorityScheduling scheduler =
-                new PreemptivePriorityScheduling(
-                        processes, agingInterval, contextSwitch);
-
-        scheduler.execute();
-
-        // ===== Build Execution Order =====
-        List<String> executionOrder = new ArrayList<>();
-        String last = "";
-
-        for (Process p : scheduler.executionOrder) {
-            if (!p.name.equals(last)) {
-                executionOrder.add(p.name);
-                last = p.name;
-            }
-        }
+    public static SJFResult simulatePriority(
+            ArrayList<Process> processes,
+            int contextSwitch,
+            int agingInterval,
+            PreemptivePriorityScheduling.QueueBackend backend
+    ) {
+        // Results are listed in arrival order; the caller's list is left as is
+        List<Process> sorted = new ArrayList<>(processes);
+        sorted.sort(Comparator.comparingInt(p -> p.arrival));
+        return simulatePriority(Workload.fromProcesses(sorted),
+                contextSwitch, agingInterval, backend);
+    }
 
-        // ===== Build Process Results =====
-        List<ProcessResult> results = new ArrayList<>();
-        double totalWT = 0, totalTAT = 0;
+    public static SJFResult simulatePriority(
+            Workload workload,
+            int contextSwitch,
+            int agingInterval
+    ) {
+        return simulatePriority(workload, contextSwitch, agingInterval,
+                PreemptivePriorityScheduling.QueueBackend.HEAP);
+    }
 
-        for (Process p : scheduler.processes) {
-            ProcessResult pr =
-                    new ProcessResult(p.name, p.waiting, p.turnaround);
+    public static SJFResult simulatePriority(
+            Workload workload,
+            int contextSwitch,
+            int agingInterval,
+            PreemptivePriorityScheduling.QueueBackend backend
+    ) {
+        return simulatePriority(workload, contextSwitch, agingInterval, backend, null);
+    }
 
-            totalWT += p.waiting;
-            totalTAT += p.turnaround;
+    // Results come back in workload row order.
+    // With a sink the trace goes there and executionOrder is left empty.
+    public static SJFResult simulatePriority(
+            Workload workload,
+            int contextSwitch,
+            int agingInterval,
+            PreemptivePriorityScheduling.QueueBackend backend,
+            TimelineSink sink
+    ) {
 
-            results.add(pr);
-        }
+        PreemptivePriorityScheduling scheduler =
+                new PreemptivePriorityScheduling(
+                        workload, agingInterval, contextSwitch, backend, sink);
 
-        double avgWT = totalWT / scheduler.processes.size();
-        double avgTAT = totalTAT / scheduler.processes.size();
+        scheduler.execute();
 
-        // ✅ Use YOUR constructor
-        return new SJFResult(executionOrder, results, avgWT, avgTAT);
+        return ResultBuilder.build(workload, scheduler.waiting,
+                scheduler.turnaround, scheduler.executionOrder, scheduler.latency);
     }
 }
 
@@ -623,198 +588,65 @@ class RoundRobin {
 
 // ======================= AG SCHEDULER =======================
 class AGScheduler {
-    private List<AGProcess> processes;
-    private Deque<AGProcess> readyQueue;
-    private List<String> executionOrder;
-    private int currentTime;
+    private final Workload workload;
+    private final TimelineSink sink;  // null: record executionOrder instead
+    private List<AGProcess> source;   // written back after simulate() when given
 
     public AGScheduler(List<AGProcess> processes) {
-        this.processes = processes;
-        this.readyQueue = new LinkedList<>();
-        this.executionOrder = new ArrayList<>();
-        this.currentTime = 0;
+        this(Workload.fromProcesses(processes));
+        this.source = processes;
     }
 
-    public AGResult simulate() {
-        // Setup Pending Processes
-        List<AGProcess> pending = new ArrayList<>(processes);
-        pending.sort(Comparator.comparingInt(AGProcess::getArrivalTime));
-
-        List<AGProcess> completed = new ArrayList<>();
-        AGProcess current = null;
-        int timeUsedInQuantum = 0;
-
-        // --- IMPORTANT: Handle T=0 Arrivals Before Loop ---
-        handleArrivals(pending, currentTime);
-
-        // --- SIMULATION LOOP ---
-        while (completed.size() < processes.size()) {
-
-            // 1. CPU Idle Handling
-            if (current == null) {
-                if (!readyQueue.isEmpty()) {
-                    current = readyQueue.poll();
-                    timeUsedInQuantum = 0;
-                    executionOrder.add(current.getName());
-                } else {
-                    // CPU is idle, just advance time
-                    currentTime++;
-                    handleArrivals(pending, currentTime);
-                    continue;
-                }
-            }
-
-            // 2. Calculate Quantum Boundaries (User Logic)
-            int q = current.getQuantum();
-            int q25 = (int) Math.ceil(q * 0.25);
-            int q50 = q25 + (int) Math.ceil(q * 0.25);
-
-            AGProcess nextProcess = null;
-            String reason = "";
-
-            // 3. Preemption Check (AG Logic)
-            //    Note: arrivals for 'currentTime' are NOT in queue yet if they just arrived
-            //    This prevents instantaneous preemption by a just-arrived process
-// 🔁 Priority phase (NON-preemptive, switch only at 25%)
-            if (timeUsedInQuantum == q25) {
-
-                AGProcess bestPrio = getBestPriorityProcess();
-
-                if (bestPrio != null &&
-                        bestPrio.getPriority() < current.getPriority()) {
-
-                    // Update quantum of current process
-                    int unused = current.getQuantum() - timeUsedInQuantum;
-                    int newQuantum = current.getQuantum() + (int) Math.ceil(unused / 2.0);
-
-                    current.setQuantum(newQuantum);
-                    current.addQuantumToHistory(newQuantum);
-
-                    // Move current back to ready queue
-                    readyQueue.add(current);
-
-                    // Switch to best priority process
-                    readyQueue.remove(bestPrio);
-                    current = bestPrio;
-                    timeUsedInQuantum = 0;
-                    executionOrder.add(current.getName());
-
-                    continue; // restart loop with new process
-                }
-            }
-            else if (timeUsedInQuantum >= q50) {
-                AGProcess bestSJF = getShortestJobProcess();
-                if (bestSJF != null && bestSJF.getRemainingTime() < current.getRemainingTime()) {
-                    nextProcess = bestSJF;
-                    reason = "SJF";
-                }
-            }
-
-            // 4. Perform Preemption (Swap)
-            if (nextProcess != null) {
-                readyQueue.remove(nextProcess);
-
-                int unused = q - timeUsedInQuantum;
-                int newQuantum = 0;
-
-                if (reason.equals("Priority")) {
-                    newQuantum = q + (int) Math.ceil(unused / 2.0);
-                } else { // SJF
-                    newQuantum = q + unused;
-                }
-
-                current.setQuantum(newQuantum);
-                current.addQuantumToHistory(newQuantum);
-                readyQueue.add(current);
+    public AGScheduler(Workload workload) {
+        this(workload, null);
+    }
 
-                current = nextProcess;
-                timeUsedInQuantum = 0;
-                executionOrder.add(current.getName());
-                // Do not increment time; restart loop to let new process run
-                continue;
-            }
+    // With a sink the trace goes there and executionOrder is left empty
+    public AGScheduler(Workload workload, TimelineSink sink) {
+        this.workload = workload;
+        this.sink = sink;
+    }
 
-            // 5. Execute One Time Unit
-            current.setRemainingTime(current.getRemainingTime() - 1);
-            timeUsedInQuantum++;
-            currentTime++;
-
-            // 6. Handle Arrivals (Post-Execution)
-            //    Now we add processes that arrived during this tick
-            handleArrivals(pending, currentTime);
-
-            // 7. Process Completion Check
-            if (current.getRemainingTime() == 0) {
-                current.setCompletionTime(currentTime);
-                current.setQuantum(0);
-                current.addQuantumToHistory(0);
-                completed.add(current);
-                current = null;
-            }
-            // 8. Quantum Expiry Check
-            else if (timeUsedInQuantum == current.getQuantum()) {
-                current.setQuantum(current.getQuantum() + 2);
-                current.addQuantumToHistory(current.getQuantum());
-                readyQueue.add(current);
-                current = null;
-            }
-        }
+    public AGResult simulate() {
+        // AG never charges a context switch
+        SimulationCore core = new SimulationCore(workload, 0, sink);
+        AGPolicy policy = new AGPolicy(core);
+        core.run(policy);
 
-        // Final Calculations
-        for (AGProcess p : processes) {
-            p.setTurnaroundTime(p.getCompletionTime() - p.getArrivalTime());
-            p.setWaitingTime(p.getTurnaroundTime() - p.getBurstTime());
-        }
+        int[] waiting = core.waiting(), turnaround = core.turnaround();
+        if (source != null) writeBack(core, policy, waiting, turnaround);
 
-        return AGResultBuilder.build(processes, executionOrder);
+        return AGResultBuilder.build(workload, waiting, turnaround,
+                policy, core.executionOrder(), core.latency());
     }
 
     // --- Helpers ---
 
-    private void handleArrivals(List<AGProcess> pending, int time) {
-        Iterator<AGProcess> it = pending.iterator();
-        while (it.hasNext()) {
-            AGProcess p = it.next();
-            if (p.getArrivalTime() <= time) {
-                readyQueue.add(p);
-                it.remove();
-            } else {
-                break;
-            }
-        }
-    }
-
-    private AGProcess getBestPriorityProcess() {
-        AGProcess best = null;
-        for (AGProcess p : readyQueue) {
-            if (best == null || p.getPriority() < best.getPriority()) {
-                best = p;
-            }
+    // Leave the AGProcess objects in the same final state as before
+    private void writeBack(SimulationCore core, AGPolicy policy, int[] waiting, int[] turnaround) {
+        for (int r = 0; r < source.size(); r++) {
+            AGProcess p = source.get(r);
+            p.setRemainingTime(core.remaining(r));
+            p.setQuantum(policy.quantum[r]);
+            p.setCompletionTime(core.completionTime(r));
+            p.setTurnaroundTime(turnaround[r]);
+            p.setWaitingTime(waiting[r]);
+            p.setQuantumHistory(AGResultBuilder.boxed(policy.quantumHistory(r)));
         }
-        return best;
-    }
-
-    private AGProcess getShortestJobProcess() {
-        AGProcess best = null;
-        for (AGProcess p : readyQueue) {
-            if (best == null || p.getRemainingTime() < best.getRemainingTime()) {
-                best = p;
-            }
-        }
-        return best;
     }
 }
 
 // ======================= RESULT BUILDER =======================
 class ResultBuilder {
-    static SJFResult build(List<Process> processes, List<String> order) {
+    static SJFResult build(Workload w, int[] waiting, int[] turnaround, List<String> order,
+                           LatencyStats latency) {
         double tw = 0, tt = 0;
         List<ProcessResult> res = new ArrayList<>();
-        for (Process p : processes) {
-            res.add(new ProcessResult(p.name, p.waiting, p.turnaround));
-            tw += p.waiting; tt += p.turnaround;
+        for (int r = 0; r < w.size(); r++) {
+            res.add(new ProcessResult(w.name(r), waiting[r], turnaround[r]));
+            tw += waiting[r]; tt += turnaround[r];
         }
-        return new SJFResult(order, res, tw / processes.size(), tt / processes.size());
+        return new SJFResult(order, res, tw / w.size(), tt / w.size(), latency);
     }
 }
 
@@ -884,23 +716,35 @@ class ProcessResult {
 class SJFResult {
     List<String> executionOrder; List<ProcessResult> processResults;
     double avgWait, avgTAT;
+    LatencyStats latency;   // percentiles; null when built from expected values
     SJFResult(List<String> o, List<ProcessResult> p, double w, double t) {
-        executionOrder = o; processResults = p; avgWait = w; avgTAT = t;
+        this(o, p, w, t, null);
+    }
+    SJFResult(List<String> o, List<ProcessResult> p, double w, double t, LatencyStats l) {
+        executionOrder = o; processResults = p; avgWait = w; avgTAT = t; latency = l;
     }
 }
 
 class AGResult extends SJFResult {
-    AGResult(List<String> o, List<ProcessResult> p, double w, double t) { super(o,p,w,t); }
+    AGResult(List<String> o, List<ProcessResult> p, double w, double t, LatencyStats l) { super(o,p,w,t,l); }
 }
 
 class AGResultBuilder {
-    static AGResult build(List<AGProcess> processes, List<String> order) {
+    static AGResult build(Workload w, int[] waiting, int[] turnaround,
+                          AGPolicy policy, List<String> order, LatencyStats latency) {
         double tw = 0, tt = 0; List<ProcessResult> res = new ArrayList<>();
-        for (AGProcess p : processes) {
-            res.add(new ProcessResult(p.getName(), p.getWaitingTime(), p.getTurnaroundTime(), p.getQuantumHistory()));
-            tw += p.getWaitingTime(); tt += p.getTurnaroundTime();
+        for (int r = 0; r < w.size(); r++) {
+            res.add(new ProcessResult(w.name(r), waiting[r], turnaround[r], boxed(policy.quantumHistory(r))));
+            tw += waiting[r]; tt += turnaround[r];
         }
-        return new AGResult(order, res, tw / processes.size(), tt / processes.size());
+        return new AGResult(order, res, tw / w.size(), tt / w.size(), latency);
+    }
+
+    // The policy keeps histories as ints; results carry them as lists
+    static List<Integer> boxed(int[] history) {
+        List<Integer> list = new ArrayList<>(history.length);
+        for (int q : history) list.add(q);
+        return list;
     }
 }
 // ======================= JSON MODELS =======================
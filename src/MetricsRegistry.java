@@ -0,0 +1,131 @@
+import javax.management.*;
+import java.lang.management.ManagementFactory;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+
+// ======================= METRICS REGISTRY =======================
+// Totals of RunMetrics per engine (the policy class) across runs, also
+// published over JMX as scheduler:type=Engine,name=<engine> with one read-only
+// attribute per counter and a reset operation.
+//
+// Off unless enabled here or with -Dscheduler.metrics=true. While off, a
+// finished run costs one volatile read; runs are folded in once at the end,
+// never per tick.
+final class MetricsRegistry {
+
+    private static volatile boolean enabled = Boolean.getBoolean("scheduler.metrics");
+    private static final Map<String, Engine> engines = new ConcurrentHashMap<>();
+
+    private MetricsRegistry() {}
+
+    static boolean enabled() { return enabled; }
+    static void enable() { enabled = true; }
+    static void disable() { enabled = false; }
+
+    // A finished run of core, under its policy's class name
+    static void recordRun(SimulationCore core) {
+        if (enabled) record(core.policy().getClass().getSimpleName(), core.metrics());
+    }
+
+    static void record(String engine, RunMetrics run) {
+        if (!enabled) return;
+        engines.computeIfAbsent(engine, Engine::new).add(run);
+    }
+
+    // Totals so far, null for an engine that has not run
+    static RunMetrics snapshot(String engine) {
+        Engine e = engines.get(engine);
+        return e == null ? null : e.snapshot();
+    }
+
+    static Set<String> engines() {
+        return new TreeSet<>(engines.keySet());
+    }
+
+    // Drops every total and unregisters the MBeans
+    static void reset() {
+        for (Engine e : engines.values()) e.unregister();
+        engines.clear();
+    }
+
+    // ======================= ENGINE MBEAN =======================
+    private static final class Engine implements DynamicMBean {
+        private RunMetrics totals = new RunMetrics();
+        private ObjectName name;
+
+        Engine(String engine) {
+            // Metrics keep working without JMX, e.g. if the name is taken
+            try {
+                name = ObjectName.getInstance("scheduler:type=Engine,name=" + ObjectName.quote(engine));
+                ManagementFactory.getPlatformMBeanServer().registerMBean(this, name);
+            } catch (JMException e) {
+                name = null;
+            }
+        }
+
+        synchronized void add(RunMetrics run) { totals.merge(run); }
+
+        synchronized RunMetrics snapshot() {
+            RunMetrics copy = new RunMetrics();
+            copy.merge(totals);
+            return copy;
+        }
+
+        synchronized void clear() { totals = new RunMetrics(); }
+
+        void unregister() {
+            if (name == null) return;
+            try {
+                ManagementFactory.getPlatformMBeanServer().unregisterMBean(name);
+            } catch (JMException ignored) {
+                // already gone
+            }
+        }
+
+        public Object getAttribute(String attribute) throws AttributeNotFoundException {
+            try {
+                return snapshot().get(RunMetrics.Counter.valueOf(attribute));
+            } catch (IllegalArgumentException e) {
+                throw new AttributeNotFoundException(attribute);
+            }
+        }
+
+        public AttributeList getAttributes(String[] attributes) {
+            RunMetrics now = snapshot();
+            AttributeList list = new AttributeList();
+            for (String a : attributes) {
+                try {
+                    list.add(new Attribute(a, now.get(RunMetrics.Counter.valueOf(a))));
+                } catch (IllegalArgumentException ignored) {
+                    // unknown names are left out, as the interface allows
+                }
+            }
+            return list;
+        }
+
+        public void setAttribute(Attribute attribute) throws AttributeNotFoundException {
+            throw new AttributeNotFoundException(attribute.getName() + " is read-only");
+        }
+
+        public AttributeList setAttributes(AttributeList attributes) { return new AttributeList(); }
+
+        public Object invoke(String action, Object[] params, String[] signature) throws ReflectionException {
+            if (!"reset".equals(action))
+                throw new ReflectionException(new NoSuchMethodException(action));
+            clear();
+            return null;
+        }
+
+        public MBeanInfo getMBeanInfo() {
+            RunMetrics.Counter[] counters = RunMetrics.Counter.values();
+            MBeanAttributeInfo[] attributes = new MBeanAttributeInfo[counters.length];
+            for (int i = 0; i < counters.length; i++)
+                attributes[i] = new MBeanAttributeInfo(counters[i].name(), "long",
+                        counters[i].max ? "highest over all runs" : "total over all runs", true, false, false);
+            MBeanOperationInfo reset = new MBeanOperationInfo("reset", "zeroes every total",
+                    new MBeanParameterInfo[0], "void", MBeanOperationInfo.ACTION);
+            return new MBeanInfo(Engine.class.getName(), "scheduler engine metrics", attributes,
+                    null, new MBeanOperationInfo[] { reset }, null);
+        }
+    }
+}
@@ -0,0 +1,118 @@
+import java.util.function.Function;
+
+// ======================= ONLINE SIMULATOR =======================
+// Incremental simulation: processes are submitted as they become known and
+// the clock is moved forward by the caller, with each completion reported as
+// it happens. Runs any SchedulingPolicy on the same core as the batch
+// schedulers and gives the same schedule as a batch run of everything that was
+// submitted, as long as every process is submitted before the clock reaches
+// its arrival.
+//
+// Memory is bounded by the slot capacity: a finished process frees its slot,
+// and nothing per process is kept once it has been reported. The timeline
+// sink, if any, sees slots as pids.
+final class OnlineSimulator {
+
+    interface CompletionListener {
+        void completed(Completion c);
+    }
+
+    static final class Completion {
+        final String name;
+        final int arrival, burst, completionTime;
+        final int waitingTime, turnaroundTime;
+
+        Completion(String name, int arrival, int burst, int completionTime) {
+            this.name = name;
+            this.arrival = arrival;
+            this.burst = burst;
+            this.completionTime = completionTime;
+            this.turnaroundTime = completionTime - arrival;
+            this.waitingTime = turnaroundTime - burst;
+        }
+
+        @Override
+        public String toString() {
+            return name + " arrival=" + arrival + " burst=" + burst + " completed=" + completionTime
+                    + " waiting=" + waitingTime + " turnaround=" + turnaroundTime;
+        }
+    }
+
+    private final SlotTable slots;
+    private final SimulationCore core;
+    private final CompletionListener listener;
+    private int now;
+
+    OnlineSimulator(int capacity, int contextSwitch, TimelineSink sink,
+                    Function<SimulationCore, SchedulingPolicy> policy, CompletionListener listener) {
+        this.slots = new SlotTable(capacity);
+        this.core = new SimulationCore(slots, contextSwitch, sink == null ? TimelineSink.DISCARD : sink);
+        this.listener = listener;
+        core.attach(policy.apply(core));
+        core.onCompletion(this::completed);
+    }
+
+    static OnlineSimulator sjf(int capacity, int contextSwitch, CompletionListener listener) {
+        return new OnlineSimulator(capacity, contextSwitch, null, SjfPolicy::new, listener);
+    }
+
+    static OnlineSimulator roundRobin(int capacity, int quantum, int contextSwitch, CompletionListener listener) {
+        return new OnlineSimulator(capacity, contextSwitch, null,
+                core -> new RoundRobinPolicy(core, quantum), listener);
+    }
+
+    static OnlineSimulator priority(int capacity, int contextSwitch, int agingInterval, CompletionListener listener) {
+        return new OnlineSimulator(capacity, contextSwitch, null,
+                core -> new PriorityPolicy(core, agingInterval, PreemptivePriorityScheduling.QueueBackend.HEAP),
+                listener);
+    }
+
+    static OnlineSimulator ag(int capacity, CompletionListener listener) {
+        return new OnlineSimulator(capacity, 0, null, AGPolicy::new, listener);
+    }
+
+    // The time the simulation has been advanced to
+    int now() { return now; }
+
+    // Submitted and not completed yet
+    int inFlight() { return slots.inUse(); }
+
+    // Engine counters so far (see RunMetrics)
+    RunMetrics metrics() { return core.metrics(); }
+
+    // May also be called from the listener, for arrivals from the completion on
+    void submit(String name, int arrival, int burst, int priority, int quantum) {
+        int clock = Math.max(now, core.time());
+        if (arrival < clock)
+            throw new IllegalArgumentException(name + " arrives at " + arrival + ", the clock is already at " + clock);
+        if (burst <= 0)
+            throw new IllegalArgumentException(name + " needs a positive burst, got " + burst);
+        core.submit(slots.add(name, arrival, burst, priority, quantum));
+    }
+
+    // Simulates up to time. Events at time itself (including completions)
+    // are reported by a later call, since more processes may arrive then.
+    void advanceTo(int time) {
+        if (time < now)
+            throw new IllegalArgumentException("cannot go back from " + now + " to " + time);
+        core.advance(time);
+        now = time;
+        slots.unhold(core.lastName());
+    }
+
+    // Runs everything submitted so far to completion
+    void drain() {
+        core.advance(Integer.MAX_VALUE);
+        now = Math.max(now, core.time());
+        slots.unhold(core.lastName());
+    }
+
+    // --- Helpers ---
+
+    private void completed(int slot) {
+        Completion c = new Completion(slots.name(slot), slots.arrival(slot), slots.burst(slot),
+                core.completionTime(slot));
+        slots.release(slot, core.lastName());
+        listener.completed(c);
+    }
+}
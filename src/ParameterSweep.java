@@ -0,0 +1,146 @@
+import java.io.PrintStream;
+import java.util.*;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+
+// ======================= PARAMETER SWEEP =======================
+// Runs one workload over a grid of scheduler parameters: RR over quantum
+// values, Priority over context switch x aging interval. Every grid point reads
+// the same parsed workload (already sorted by arrival), and the grid is split
+// across cores with fork-join. Runs use a discarding timeline sink, so no
+// execution order lists are built for them.
+final class ParameterSweep {
+
+    private ParameterSweep() {}
+
+    // ======================= RANGE =======================
+    // Inclusive range with a positive step, written "from", "from:to" or "from:to:step"
+    static final class Range {
+        final int from, to, step;
+
+        Range(int from, int to, int step) {
+            if (step <= 0) throw new IllegalArgumentException("step must be positive, got " + step);
+            if (to < from) throw new IllegalArgumentException("empty range " + from + ":" + to);
+            this.from = from;
+            this.to = to;
+            this.step = step;
+        }
+
+        static Range parse(String text) {
+            String[] parts = text.trim().split(":");
+            if (parts.length > 3) throw new IllegalArgumentException("bad range \"" + text + "\"");
+            int from = Integer.parseInt(parts[0]);
+            int to = parts.length > 1 ? Integer.parseInt(parts[1]) : from;
+            int step = parts.length > 2 ? Integer.parseInt(parts[2]) : 1;
+            return new Range(from, to, step);
+        }
+
+        int size() { return (to - from) / step + 1; }
+        int get(int i) { return from + i * step; }
+    }
+
+    // ======================= GRID POINT =======================
+    static final class Point {
+        final ComparisonRunner.Algorithm algorithm;
+        final int quantum, contextSwitch, agingInterval;
+        Stats waiting, turnaround;
+
+        Point(ComparisonRunner.Algorithm algorithm, int quantum, int contextSwitch, int agingInterval) {
+            this.algorithm = algorithm;
+            this.quantum = quantum;
+            this.contextSwitch = contextSwitch;
+            this.agingInterval = agingInterval;
+        }
+    }
+
+    // Mean plus nearest-rank percentiles of one metric over all processes,
+    // read off the run's histogram (exact mean and max, percentiles to 1/64)
+    static final class Stats {
+        final double avg;
+        final int p50, p90, p99, max;
+
+        Stats(LatencyHistogram h) {
+            avg = h.mean();
+            p50 = h.percentile(50);
+            p90 = h.percentile(90);
+            p99 = h.percentile(99);
+            max = h.max();
+        }
+    }
+
+    // ======================= SWEEPS =======================
+    static List<Point> sweepRR(Workload w, Range quanta, int contextSwitch) {
+        Point[] grid = new Point[quanta.size()];
+        for (int i = 0; i < grid.length; i++)
+            grid[i] = new Point(ComparisonRunner.Algorithm.RR, quanta.get(i), contextSwitch, 0);
+        return run(w, grid);
+    }
+
+    // Context switch is the outer loop, aging the inner one
+    static List<Point> sweepPriority(Workload w, Range contextSwitches, Range agingIntervals) {
+        Point[] grid = new Point[contextSwitches.size() * agingIntervals.size()];
+        int i = 0;
+        for (int c = 0; c < contextSwitches.size(); c++)
+            for (int a = 0; a < agingIntervals.size(); a++)
+                grid[i++] = new Point(ComparisonRunner.Algorithm.PRIORITY, 0,
+                        contextSwitches.get(c), agingIntervals.get(a));
+        return run(w, grid);
+    }
+
+    static void writeTable(List<Point> points, PrintStream out) {
+        out.printf("%-9s %4s %4s %5s | %9s %6s %6s %6s %6s | %9s %6s %6s %6s %6s%n",
+                "ALG", "Q", "CS", "AGING",
+                "WT avg", "p50", "p90", "p99", "max",
+                "TAT avg", "p50", "p90", "p99", "max");
+        for (Point p : points) {
+            out.printf("%-9s %4d %4d %5d | %9.2f %6d %6d %6d %6d | %9.2f %6d %6d %6d %6d%n",
+                    p.algorithm, p.quantum, p.contextSwitch, p.agingInterval,
+                    p.waiting.avg, p.waiting.p50, p.waiting.p90, p.waiting.p99, p.waiting.max,
+                    p.turnaround.avg, p.turnaround.p50, p.turnaround.p90, p.turnaround.p99,
+                    p.turnaround.max);
+        }
+    }
+
+    // --- Helpers ---
+
+    private static List<Point> run(Workload w, Point[] grid) {
+        ForkJoinPool.commonPool().invoke(new Slice(w, grid, 0, grid.length));
+        return Arrays.asList(grid);
+    }
+
+    private static void simulate(Workload w, Point p) {
+        SJFResult r = p.algorithm == ComparisonRunner.Algorithm.RR
+                ? RoundRobin.simulateRR(w, p.quantum, p.contextSwitch, TimelineSink.DISCARD)
+                : PreemptivePriority.simulatePriority(w, p.contextSwitch, p.agingInterval,
+                        PreemptivePriorityScheduling.QueueBackend.HEAP, TimelineSink.DISCARD);
+        p.waiting = new Stats(r.latency.waiting);
+        p.turnaround = new Stats(r.latency.turnaround);
+    }
+
+    // Halves the grid down to single points; each point is a whole simulation,
+    // so that is already plenty of work per task
+    private static final class Slice extends RecursiveAction {
+        private static final long serialVersionUID = 1L;
+
+        private final Workload w;
+        private final Point[] grid;
+        private final int lo, hi;
+
+        Slice(Workload w, Point[] grid, int lo, int hi) {
+            this.w = w;
+            this.grid = grid;
+            this.lo = lo;
+            this.hi = hi;
+        }
+
+        @Override
+        protected void compute() {
+            if (hi - lo <= 1) {
+                if (hi > lo) simulate(w, grid[lo]);
+                return;
+            }
+            int mid = (lo + hi) >>> 1;
+            invokeAll(new Slice(w, grid, lo, mid), new Slice(w, grid, mid, hi));
+        }
+    }
+}
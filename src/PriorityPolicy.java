@@ -0,0 +1,136 @@
+import java.io.*;
+
+// ======================= PRIORITY POLICY =======================
+// Preemptive priority with aging, one tick at a time. Min priority number wins,
+// ties by arrival then name; aging is handled by the ready queue. A context
+// switch puts the chosen process back, and the choice is made again once the
+// switch is over (something better may have arrived or aged meanwhile).
+class PriorityPolicy implements SchedulingPolicy {
+
+    private final SimulationCore core;
+    private final ProcessTable w;
+    private final PriorityReadyQueue readyQueue;
+    private final int agingInterval;
+    private final PreemptivePriorityScheduling.QueueBackend backend;
+    private final int[] priority, tempArrival;    // by row
+    private int lastOrdered = -1;                 // name id, consecutive repeats dropped
+    private int ran = -1;                         // row of the last tick, if it has work left
+    private long preemptions, agingSteps;
+
+    PriorityPolicy(SimulationCore core, int agingInterval,
+                   PreemptivePriorityScheduling.QueueBackend backend) {
+        this.core = core;
+        this.w = core.table();
+        this.agingInterval = agingInterval;
+        this.backend = backend;
+        int n = w.size();
+        priority = new int[n];
+        tempArrival = new int[n];
+        readyQueue = newReadyQueue(backend, agingInterval, core.tieRanks());
+    }
+
+    public void onArrival(int row) {
+        priority[row] = w.priority(row);
+        tempArrival[row] = w.arrival(row);
+        readyQueue.add(row);
+    }
+
+    public int select() {
+        if (readyQueue.isEmpty()) return -1;
+        int row = readyQueue.poll();
+        if (ran != -1 && row != ran) preemptions++;
+        ran = -1;
+        if (w.nameId(row) != lastOrdered) {
+            core.record(row);
+            lastOrdered = w.nameId(row);
+        }
+        return row;
+    }
+
+    // Back in the queue for the switch; it keeps aging and may lose its turn
+    public boolean onContextSwitch(int row) {
+        readyQueue.add(row);
+        return true;
+    }
+
+    // Keep the priority it aged to while waiting; it starts aging again
+    // from here when it is queued back
+    public int runLength(int row) {
+        priority[row] = readyQueue.effectivePriority(row);
+        return 1;
+    }
+
+    public void onClock(int time) {
+        if (readyQueue.advance(time)) agingSteps++;
+    }
+
+    public void afterRun(int row) {
+        tempArrival[row] = core.time();
+        readyQueue.add(row);
+        ran = row;
+    }
+
+    public void onComplete(int row) {}
+
+    public IdleRule idleRule() { return IdleRule.SWITCH_OUT; }
+
+    public int steal() { return readyQueue.isEmpty() ? -1 : readyQueue.poll(); }
+
+    // Keeps aging from where it was
+    public void adopt(int row, SchedulingPolicy from) {
+        PriorityPolicy other = (PriorityPolicy) from;
+        priority[row] = other.priority[row];
+        tempArrival[row] = other.tempArrival[row];
+        readyQueue.add(row);
+    }
+
+    public void metrics(RunMetrics into) {
+        into.add(RunMetrics.Counter.PREEMPT_PRIORITY, preemptions);
+        into.add(RunMetrics.Counter.AGING_STEPS, agingSteps);
+    }
+
+    public boolean checkpointable() { return true; }
+
+    // Priorities as they stand (the bucket queue ages them in place)
+    public void save(DataOutput out) throws IOException {
+        out.writeInt(agingInterval);
+        out.writeInt(backend.ordinal());
+        out.writeInt(ran);
+        out.writeLong(preemptions);
+        out.writeLong(agingSteps);
+        Checkpoint.writeInts(out, priority);
+        Checkpoint.writeInts(out, tempArrival);
+        out.writeInt(lastOrdered);
+        Checkpoint.writeInts(out, readyQueue.ids());
+    }
+
+    public void restore(DataInput in) throws IOException {
+        Checkpoint.expect("aging interval", in.readInt(), agingInterval);
+        Checkpoint.expect("queue backend", in.readInt(), backend.ordinal());
+        ran = in.readInt();
+        preemptions = in.readLong();
+        agingSteps = in.readLong();
+        Checkpoint.readInts(in, priority);
+        Checkpoint.readInts(in, tempArrival);
+        lastOrdered = in.readInt();
+        readyQueue.restore(core.time(), Checkpoint.readInts(in));
+    }
+
+    // --- Helpers ---
+
+    // Buckets need the priority range up front, so they only fit a batch run
+    private PriorityReadyQueue newReadyQueue(PreemptivePriorityScheduling.QueueBackend backend,
+                                             int agingInterval, int[] tieRank) {
+        if (backend == PreemptivePriorityScheduling.QueueBackend.HEAP)
+            return new AgingReadyQueue(agingInterval, priority, tempArrival, tieRank);
+        if (!(w instanceof Workload))
+            throw new IllegalArgumentException("the bucket queue needs a workload known up front");
+
+        int min = Integer.MAX_VALUE, max = Integer.MIN_VALUE;
+        for (int r = 0; r < w.size(); r++) {
+            min = Math.min(min, w.priority(r));
+            max = Math.max(max, w.priority(r));
+        }
+        return new BucketReadyQueue(min, max, agingInterval, priority, tempArrival, tieRank);
+    }
+}
@@ -0,0 +1,25 @@
+// ======================= PRIORITY READY QUEUE =======================
+// Ready queue used by PreemptivePriorityScheduling, over process indices.
+// Lower priority number wins, ties go to the lower tie rank (arrival, then
+// name). Implementations also own aging: advance(time) is called once for
+// every tick the clock moves to.
+interface PriorityReadyQueue {
+
+    boolean isEmpty();
+
+    void add(int id);
+
+    int poll();
+
+    // True if some queued id aged on this tick
+    boolean advance(int time);
+
+    // Priority id has aged to by now (id was just polled)
+    int effectivePriority(int id);
+
+    // Checkpoints: the queued ids in no particular order, and putting them
+    // back into an empty queue whose clock is at time (nothing ages)
+    int[] ids();
+
+    void restore(int time, int[] ids);
+}
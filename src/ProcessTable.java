@@ -0,0 +1,13 @@
+// ======================= PROCESS TABLE =======================
+// What SimulationCore and the policies read about processes, by dense int row.
+// Workload is the batch table; SlotTable is the online one, where a row is a
+// slot that is handed out again once its process has finished.
+interface ProcessTable {
+    int size();                 // rows (slots), every per-row array is this long
+    int arrival(int row);
+    int burst(int row);
+    int priority(int row);
+    int quantum(int row);
+    int nameId(int row);        // equal ids mean equal names
+    String name(int row);
+}
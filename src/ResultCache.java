@@ -0,0 +1,307 @@
+import java.io.*;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.*;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.*;
+
+// ======================= RESULT CACHE =======================
+// Results of earlier simulations, addressed by content: the key is a SHA-256
+// of the engine version, the algorithm, the parameters it actually uses and
+// the workload columns it reads (SJF and RR never look at priority or
+// quantum, AG never at the context switch). The same workload and settings
+// give the same key whatever file or object they came from, and settings
+// an algorithm ignores do not split its entries.
+//
+// Two tiers: an in-memory LRU bounded by the size of the results it holds
+// (one unit per result row, execution order entry and quantum history entry),
+// and optionally a directory with one file per key that outlives the process.
+// A memory miss that hits the disk is promoted back into memory.
+//
+// ENGINE_VERSION is part of every key and of every file header. Bump it when
+// any engine's results change; older entries then never match again, and
+// prune() deletes their files.
+//
+// Results are shared between callers and must not be changed. Two threads
+// missing on the same key at once both simulate; the second put wins.
+final class ResultCache {
+
+    static final int ENGINE_VERSION = 1;
+
+    private static final int MAGIC = 0x53524553;   // "SRES"
+    private static final String SUFFIX = ".res";
+
+    // Hits, misses and evictions so far
+    static final class Stats {
+        final long memoryHits, diskHits, misses, evictions;
+        final int entries;
+        final long weight;
+
+        Stats(long memoryHits, long diskHits, long misses, long evictions, int entries, long weight) {
+            this.memoryHits = memoryHits;
+            this.diskHits = diskHits;
+            this.misses = misses;
+            this.evictions = evictions;
+            this.entries = entries;
+            this.weight = weight;
+        }
+
+        double hitRate() {
+            long total = memoryHits + diskHits + misses;
+            return total == 0 ? 0 : (double) (memoryHits + diskHits) / total;
+        }
+
+        @Override
+        public String toString() {
+            return String.format("hits=%d (disk %d), misses=%d, hit rate=%.1f%%, evictions=%d, entries=%d, weight=%d",
+                    memoryHits + diskHits, diskHits, misses, 100 * hitRate(), evictions, entries, weight);
+        }
+    }
+
+    private final long maxWeight;
+    private final Path dir;                   // null: memory only
+    private final int engineVersion;
+    private final LinkedHashMap<String, SJFResult> memory = new LinkedHashMap<>(16, 0.75f, true);
+    private long weight;
+    private long memoryHits, diskHits, misses, evictions;
+
+    ResultCache(long maxWeight) {
+        this(maxWeight, null);
+    }
+
+    ResultCache(long maxWeight, Path dir) {
+        this(maxWeight, dir, ENGINE_VERSION);
+    }
+
+    // Another engine version: for tests of the invalidation rule
+    ResultCache(long maxWeight, Path dir, int engineVersion) {
+        if (maxWeight <= 0) throw new IllegalArgumentException("weight bound must be positive, got " + maxWeight);
+        this.maxWeight = maxWeight;
+        this.dir = dir;
+        this.engineVersion = engineVersion;
+    }
+
+    // The stored result for file under algorithm, simulating only on a miss
+    SJFResult simulate(WorkloadFile file, ComparisonRunner.Algorithm algorithm) {
+        String key = key(file.workload, algorithm, file.contextSwitch, file.rrQuantum, file.agingOrZero());
+        SJFResult result = get(key);
+        if (result == null) {
+            result = ComparisonRunner.simulate(file, algorithm);
+            put(key, result);
+        }
+        return result;
+    }
+
+    // Memory first, then disk; null on a miss
+    SJFResult get(String key) {
+        synchronized (this) {
+            SJFResult hit = memory.get(key);
+            if (hit != null) {
+                memoryHits++;
+                return hit;
+            }
+        }
+        SJFResult stored = dir == null ? null : readFile(key);
+        synchronized (this) {
+            if (stored == null) {
+                misses++;
+                return null;
+            }
+            diskHits++;
+            remember(key, stored);
+            return stored;
+        }
+    }
+
+    void put(String key, SJFResult result) {
+        synchronized (this) {
+            remember(key, result);
+        }
+        if (dir != null) writeFile(key, result);
+    }
+
+    synchronized Stats stats() {
+        return new Stats(memoryHits, diskHits, misses, evictions, memory.size(), weight);
+    }
+
+    // Empties the memory tier; files stay
+    synchronized void clear() {
+        memory.clear();
+        weight = 0;
+    }
+
+    // Deletes files written by another engine version (or unreadable ones);
+    // returns how many
+    int prune() throws IOException {
+        if (dir == null || !Files.isDirectory(dir)) return 0;
+        int deleted = 0;
+        try (DirectoryStream<Path> files = Files.newDirectoryStream(dir, "*" + SUFFIX)) {
+            for (Path f : files) {
+                int version;
+                try (DataInputStream in = new DataInputStream(new BufferedInputStream(Files.newInputStream(f)))) {
+                    version = in.readInt() == MAGIC ? in.readInt() : -1;
+                } catch (IOException e) {
+                    version = -1;
+                }
+                if (version != engineVersion && Files.deleteIfExists(f)) deleted++;
+            }
+        }
+        return deleted;
+    }
+
+    // Hex SHA-256 of everything algorithm's result depends on
+    String key(Workload w, ComparisonRunner.Algorithm algorithm, int contextSwitch, int rrQuantum, int agingInterval) {
+        boolean priority = algorithm == ComparisonRunner.Algorithm.PRIORITY || algorithm == ComparisonRunner.Algorithm.AG;
+        boolean quantum = algorithm == ComparisonRunner.Algorithm.AG;
+
+        Digest d = new Digest();
+        d.putInt(engineVersion);
+        d.putInt(algorithm.ordinal());
+        d.putInt(algorithm == ComparisonRunner.Algorithm.AG ? 0 : contextSwitch);
+        d.putInt(algorithm == ComparisonRunner.Algorithm.RR ? rrQuantum : 0);
+        d.putInt(algorithm == ComparisonRunner.Algorithm.PRIORITY ? agingInterval : 0);
+        d.putInt(w.size());
+        for (int r = 0; r < w.size(); r++) {
+            d.putString(w.name(r));
+            d.putInt(w.arrival(r));
+            d.putInt(w.burst(r));
+            d.putInt(priority ? w.priority(r) : 0);
+            d.putInt(quantum ? w.quantum(r) : 0);
+        }
+        return d.hex();
+    }
+
+    // --- Helpers ---
+
+    // Caller holds the lock
+    private void remember(String key, SJFResult result) {
+        SJFResult old = memory.put(key, result);
+        if (old != null) weight -= weightOf(old);
+        weight += weightOf(result);
+
+        // Oldest first; the newest entry stays even if it alone is over the bound
+        Iterator<SJFResult> it = memory.values().iterator();
+        while (weight > maxWeight && memory.size() > 1) {
+            weight -= weightOf(it.next());
+            it.remove();
+            evictions++;
+        }
+    }
+
+    private static long weightOf(SJFResult r) {
+        long w = 1 + r.executionOrder.size() + r.processResults.size();
+        for (ProcessResult p : r.processResults) w += p.quantumHistory.size();
+        return w;
+    }
+
+    // Same shape as Checkpoint: header, then the result, replaced in one move
+    private void writeFile(String key, SJFResult r) {
+        Path file = dir.resolve(key + SUFFIX);
+        try {
+            Files.createDirectories(dir);
+            Path tmp = Files.createTempFile(dir, key, ".tmp");
+            try (DataOutputStream out = new DataOutputStream(
+                    new BufferedOutputStream(Files.newOutputStream(tmp), 1 << 16))) {
+                out.writeInt(MAGIC);
+                out.writeInt(engineVersion);
+                out.writeBoolean(r instanceof AGResult);
+                out.writeInt(r.executionOrder.size());
+                for (String name : r.executionOrder) out.writeUTF(name);
+                out.writeInt(r.processResults.size());
+                for (ProcessResult p : r.processResults) {
+                    out.writeUTF(p.name);
+                    out.writeInt(p.waitingTime);
+                    out.writeInt(p.turnaroundTime);
+                    out.writeInt(p.quantumHistory.size());
+                    for (int q : p.quantumHistory) out.writeInt(q);
+                }
+                out.writeDouble(r.avgWait);
+                out.writeDouble(r.avgTAT);
+                out.writeBoolean(r.latency != null);
+                if (r.latency != null) r.latency.save(out);
+            }
+            Files.move(tmp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (IOException e) {
+            // The disk tier is best effort: the result is in memory either way
+        }
+    }
+
+    // Null when there is no file or it is not one this version wrote
+    private SJFResult readFile(String key) {
+        Path file = dir.resolve(key + SUFFIX);
+        if (!Files.exists(file)) return null;
+        try (DataInputStream in = new DataInputStream(
+                new BufferedInputStream(Files.newInputStream(file), 1 << 16))) {
+            if (in.readInt() != MAGIC || in.readInt() != engineVersion) return null;
+            boolean ag = in.readBoolean();
+            List<String> order = new ArrayList<>();
+            for (int i = in.readInt(); i > 0; i--) order.add(in.readUTF());
+            int n = in.readInt();
+            List<ProcessResult> rows = new ArrayList<>(n);
+            for (int i = 0; i < n; i++) {
+                String name = in.readUTF();
+                int waiting = in.readInt(), turnaround = in.readInt();
+                List<Integer> history = new ArrayList<>();
+                for (int q = in.readInt(); q > 0; q--) history.add(in.readInt());
+                rows.add(new ProcessResult(name, waiting, turnaround, history));
+            }
+            double avgWait = in.readDouble(), avgTAT = in.readDouble();
+            LatencyStats latency = null;
+            if (in.readBoolean()) {
+                latency = new LatencyStats();
+                latency.restore(in);
+            }
+            return ag ? new AGResult(order, rows, avgWait, avgTAT, latency)
+                    : new SJFResult(order, rows, avgWait, avgTAT, latency);
+        } catch (IOException e) {
+            return null;                      // torn or foreign file: simulate again
+        }
+    }
+
+    // SHA-256 fed through a small buffer
+    private static final class Digest {
+        private final MessageDigest sha;
+        private final ByteBuffer buf = ByteBuffer.allocate(1 << 13);
+
+        Digest() {
+            try {
+                sha = MessageDigest.getInstance("SHA-256");
+            } catch (NoSuchAlgorithmException e) {
+                throw new IllegalStateException("SHA-256 is required of every JVM", e);
+            }
+        }
+
+        void putInt(int v) {
+            if (buf.remaining() < 4) flush();
+            buf.putInt(v);
+        }
+
+        // Length first, so "ab"+"c" and "a"+"bc" differ
+        void putString(String s) {
+            byte[] bytes = s.getBytes(StandardCharsets.UTF_8);
+            putInt(bytes.length);
+            if (bytes.length > buf.remaining()) {
+                flush();
+                if (bytes.length > buf.capacity()) {
+                    sha.update(bytes);
+                    return;
+                }
+            }
+            buf.put(bytes);
+        }
+
+        String hex() {
+            flush();
+            StringBuilder sb = new StringBuilder(64);
+            for (byte b : sha.digest()) sb.append(Character.forDigit((b >> 4) & 0xF, 16)).append(Character.forDigit(b & 0xF, 16));
+            return sb.toString();
+        }
+
+        private void flush() {
+            buf.flip();
+            sha.update(buf);
+            buf.clear();
+        }
+    }
+}
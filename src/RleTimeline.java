@@ -0,0 +1,46 @@
+import java.util.Arrays;
+
+// ======================= RLE TIMELINE =======================
+// In-memory timeline: touching slices of the same process are merged, so a
+// process that runs for a million ticks in a row costs one entry, not a million.
+// Entries live in three int columns rather than one object each.
+class RleTimeline implements TimelineSink {
+
+    private int[] pid = new int[16], start = new int[16], end = new int[16];
+    private int size;
+
+    public void slice(int p, int s, int e) {
+        if (e <= s) return;
+        if (size > 0 && pid[size - 1] == p && end[size - 1] == s) {
+            end[size - 1] = e;
+            return;
+        }
+        if (size == pid.length) grow();
+        pid[size] = p;
+        start[size] = s;
+        end[size] = e;
+        size++;
+    }
+
+    int size() { return size; }
+    int pid(int i) { return pid[i]; }
+    int start(int i) { return start[i]; }
+    int end(int i) { return end[i]; }
+
+    // Point and range queries over the finished timeline
+    TimelineIndex index() { return new TimelineIndex(this); }
+
+    // Sends every entry on to another sink, e.g. a file
+    void replay(TimelineSink into) {
+        for (int i = 0; i < size; i++) into.slice(pid[i], start[i], end[i]);
+    }
+
+    // --- Helpers ---
+
+    private void grow() {
+        int cap = pid.length * 2;
+        pid = Arrays.copyOf(pid, cap);
+        start = Arrays.copyOf(start, cap);
+        end = Arrays.copyOf(end, cap);
+    }
+}
@@ -0,0 +1,59 @@
+import java.io.*;
+
+// ======================= ROUND ROBIN POLICY =======================
+// FIFO with a fixed quantum. A process whose quantum runs out goes to the back,
+// behind anything that arrived while it ran.
+class RoundRobinPolicy implements SchedulingPolicy {
+
+    private final SimulationCore core;
+    private final int quantum;
+    // A process is queued at most once at a time, so n slots are enough
+    private final IntRingBuffer ready;
+    private long expiries;
+
+    RoundRobinPolicy(SimulationCore core, int quantum) {
+        if (quantum <= 0) throw new IllegalArgumentException("RR needs a positive quantum, got " + quantum);
+        this.core = core;
+        this.quantum = quantum;
+        this.ready = new IntRingBuffer(core.table().size());
+    }
+
+    public void onArrival(int row) { ready.add(row); }
+
+    public int select() {
+        if (ready.isEmpty()) return -1;
+        int row = ready.poll();
+        core.record(row);
+        return row;
+    }
+
+    public int runLength(int row) { return Math.min(quantum, core.remaining(row)); }
+
+    // Ran its whole quantum and has work left
+    public void afterRun(int row) {
+        ready.add(row);
+        expiries++;
+    }
+
+    public void onComplete(int row) {}
+
+    public int steal() { return ready.isEmpty() ? -1 : ready.poll(); }
+
+    public void metrics(RunMetrics into) { into.add(RunMetrics.Counter.QUANTUM_EXPIRIES, expiries); }
+
+    public boolean checkpointable() { return true; }
+
+    // The queue in line order
+    public void save(DataOutput out) throws IOException {
+        out.writeInt(quantum);
+        out.writeLong(expiries);
+        out.writeInt(ready.size());
+        for (int i = 0; i < ready.size(); i++) out.writeInt(ready.get(i));
+    }
+
+    public void restore(DataInput in) throws IOException {
+        Checkpoint.expect("quantum", in.readInt(), quantum);
+        expiries = in.readLong();
+        for (int i = in.readInt(); i > 0; i--) ready.add(in.readInt());
+    }
+}
@@ -0,0 +1,51 @@
+// ======================= RUN METRICS =======================
+// What an engine did internally during one run. SimulationCore and the
+// policies count in plain fields as they go (an increment on the paths they
+// already take) and hand the totals over here on request, so nothing is paid
+// per tick for collecting them. See MetricsRegistry for totals across runs.
+final class RunMetrics {
+
+    enum Counter {
+        RUNS,
+        SIMULATED_TICKS,     // clock at the end of the run
+        EVENTS,              // dispatch decisions, run ends, switch ticks and idle jumps handled
+        IDLE_TICKS,          // nothing to run
+        CONTEXT_SWITCHES,    // including switching out to go idle
+        PREEMPT_PRIORITY,    // a better priority took over (Priority, AG at 25%)
+        PREEMPT_SHORTER,     // a shorter job took over (SJF, AG from 50%)
+        QUANTUM_EXPIRIES,    // quantum used up with work left (RR, AG)
+        READY_HIGH_WATER(true),   // most processes admitted and not finished at once
+        AGING_STEPS;         // ticks on which some ready process aged (Priority)
+
+        final boolean max;   // totals keep the highest value rather than the sum
+
+        Counter() { this(false); }
+        Counter(boolean max) { this.max = max; }
+    }
+
+    private static final Counter[] COUNTERS = Counter.values();
+
+    private final long[] values = new long[COUNTERS.length];
+
+    long get(Counter c) { return values[c.ordinal()]; }
+
+    void add(Counter c, long amount) { values[c.ordinal()] += amount; }
+
+    // Folds another run in: sums, and the highest high-water mark
+    void merge(RunMetrics other) {
+        for (Counter c : COUNTERS) {
+            int i = c.ordinal();
+            values[i] = c.max ? Math.max(values[i], other.values[i]) : values[i] + other.values[i];
+        }
+    }
+
+    @Override
+    public String toString() {
+        StringBuilder sb = new StringBuilder();
+        for (Counter c : COUNTERS) {
+            if (sb.length() > 0) sb.append(", ");
+            sb.append(c.name().toLowerCase()).append('=').append(values[c.ordinal()]);
+        }
+        return sb.toString();
+    }
+}
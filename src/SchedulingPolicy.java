@@ -0,0 +1,73 @@
+import java.io.*;
+
+// ======================= SCHEDULING POLICY =======================
+// The algorithm-specific half of a simulation. SimulationCore owns the clock,
+// arrival admission, remaining times, context switches, the trace and the
+// results; a policy only owns its ready structure and answers "who runs next,
+// and for how long". Ids are rows of the core's process table.
+//
+// Per step the core calls select(), then (if a context switch is due)
+// onContextSwitch(), then runLength(), advances the clock, calls onClock() and
+// admits arrivals through onArrival(), and finally afterRun() or onComplete().
+interface SchedulingPolicy {
+
+    // What happens to the "last process" when the CPU goes idle
+    enum IdleRule {
+        KEEP_LAST,     // the next different process still pays a context switch
+        FORGET_LAST,   // the next process starts fresh, no switch
+        SWITCH_OUT     // switching to idle costs a context switch, then as FORGET_LAST
+    }
+
+    // row arrived and is ready
+    void onArrival(int row);
+
+    // Takes the next row to run out of the ready structure, -1 if nothing is ready
+    int select();
+
+    // Called once per run, just before row runs: ticks to run, 1..remaining
+    int runLength(int row);
+
+    // row ran and still has work left
+    void afterRun(int row);
+
+    // row just finished (the core has recorded its completion time)
+    void onComplete(int row);
+
+    // The clock moved to time (may skip ticks, e.g. while idle)
+    default void onClock(int time) {}
+
+    // A context switch is due before row runs. Return true to put row back and
+    // select again once the switch is over; false to run row after it.
+    default boolean onContextSwitch(int row) { return false; }
+
+    default IdleRule idleRule() { return IdleRule.KEEP_LAST; }
+
+    // True if runLength() only looks as far as the next arrival: a process
+    // submitted online while such a run is going on cuts it short at its arrival
+    default boolean runsToNextArrival() { return false; }
+
+    // SMP: takes a ready row out to run on another CPU, -1 if there is none
+    // (or the policy does not move work)
+    default int steal() { return -1; }
+
+    // SMP: row was taken out of from, a policy of the same kind, and is ready
+    // here now. Carries over whatever per-row state from kept.
+    default void adopt(int row, SchedulingPolicy from) { onArrival(row); }
+
+    // Adds the policy's own counters (preemptions by cause, aging, ...)
+    default void metrics(RunMetrics into) {}
+
+    // Checkpoints: true if save() and restore() are implemented. Checkpoint
+    // refuses a policy that says false before it writes anything.
+    default boolean checkpointable() { return false; }
+
+    // Writes everything kept between calls (after the core's own state), and
+    // reads it back into a fresh policy of the same settings
+    default void save(DataOutput out) throws IOException {
+        throw new UnsupportedOperationException(getClass().getSimpleName() + " cannot be checkpointed");
+    }
+
+    default void restore(DataInput in) throws IOException {
+        throw new UnsupportedOperationException(getClass().getSimpleName() + " cannot be checkpointed");
+    }
+}
@@ -0,0 +1,515 @@
+import java.io.*;
+import java.util.*;
+import java.util.function.IntConsumer;
+
+// ======================= SIMULATION CORE =======================
+// The one event loop every scheduler runs on. It jumps straight over idle
+// gaps and lets the policy pick how long each run lasts, so event-driven
+// policies skip whole stretches of time and tick-by-tick ones take one unit.
+// Context switches are played tick by tick (they are short and arrivals or
+// aging may happen during them). Per-run state lives in int arrays by row;
+// the process table itself is never touched.
+//
+// The loop can stop at any time limit and carry on later (advance), which is
+// what online simulation needs: there the processes are not known up front
+// but submitted into the slots of a SlotTable as the caller goes. An SMP
+// machine runs one core per CPU the same way, over one shared RowState, and
+// hands processes from one to another.
+final class SimulationCore {
+
+    private static final int NONE = -1;
+
+    // Where the loop is between two calls to advance()
+    private static final int SELECT = 0, SWITCHING = 1, RUNNING = 2, IDLE = 3;
+
+    // Per-row state outside the policies. One per run, or one per SMP machine
+    // shared by the cores of all its CPUs.
+    static final class RowState {
+        final int[] remaining, completion;
+        final int[] admitted;                 // admission order, compare by difference
+        int admitCount;
+        int[] tieRank;                        // see tieRanks()
+        int rankCount;
+        int live, liveHighWater;              // admitted and not finished, now and at most
+        SchedulingPolicy[] from;              // SMP: policy a row is being handed over from
+
+        RowState(int n) {
+            remaining = new int[n];
+            completion = new int[n];
+            admitted = new int[n];
+        }
+    }
+
+    // SMP only: moves work between the cores of a machine
+    interface Balancer {
+        // Before every dispatch; may hand rows to cpu with submit()
+        void beforeSelect(SimulationCore cpu);
+
+        // cpu has nothing ready and nothing on its way
+        void starved(SimulationCore cpu);
+    }
+
+    private final ProcessTable table;
+    private final Workload workload;          // null when online
+    private final int contextSwitch;
+    private final TimelineSink sink;          // null: record executionOrder instead
+    private final List<String> executionOrder = new ArrayList<>();
+
+    // Arrivals not admitted yet: batch walks the rows by arrival, online keeps
+    // the submitted rows in a heap by (ready time, submission)
+    private final int[] rows;
+    private int next;
+    private final IndexedMinHeap pending;
+    private final int[] readyAt;
+    private final long[] submitted;
+    private long submitCount;
+    private final int[] group;                // one ready time's rows while admitting
+    private final boolean rankOnAdmit;        // slot name ids are not in name order
+
+    private final RowState state;
+    private final int[] remaining, completion, admitted;
+    private IntConsumer onCompletion;
+    private Balancer balancer;
+    private boolean starved;                  // stopped for lack of work (SMP)
+    private int switches;
+    private long events, idleTicks;           // see RunMetrics
+    private final LatencyStats latency = new LatencyStats();
+
+    private SchedulingPolicy policy;
+    private int phase = SELECT;
+    private int row = NONE;                   // being switched to or run
+    private int switchLeft, runEnd;
+    private boolean retry;
+    private int time;
+    private int last = NONE;                  // name id that last held the CPU
+
+    SimulationCore(Workload workload, int contextSwitch, TimelineSink sink) {
+        this(workload, workload, new RowState(workload.size()), false, contextSwitch, sink);
+    }
+
+    // Online: the slots are filled by the caller and handed over with submit()
+    SimulationCore(SlotTable slots, int contextSwitch, TimelineSink sink) {
+        this(slots, null, new RowState(slots.size()), true, contextSwitch, sink);
+    }
+
+    // One CPU of an SMP machine: rows come from the machine with submit()
+    SimulationCore(Workload workload, RowState shared, int contextSwitch, TimelineSink sink) {
+        this(workload, workload, shared, true, contextSwitch, sink);
+    }
+
+    private SimulationCore(ProcessTable table, Workload workload, RowState state, boolean fed,
+                           int contextSwitch, TimelineSink sink) {
+        this.table = table;
+        this.workload = workload;
+        this.contextSwitch = contextSwitch;
+        this.sink = sink;
+        this.state = state;
+        this.remaining = state.remaining;
+        this.completion = state.completion;
+        this.admitted = state.admitted;
+        this.rankOnAdmit = workload == null;
+        int n = table.size();
+        if (!fed) {
+            this.rows = workload.byArrival();
+            this.pending = null;
+            this.readyAt = null;
+            this.submitted = null;
+            this.group = null;
+        } else {
+            this.rows = null;
+            this.readyAt = new int[n];
+            this.submitted = new long[n];
+            this.group = new int[n];
+            this.pending = new IndexedMinHeap(n, (a, b) -> readyAt[a] != readyAt[b]
+                    ? Integer.compare(readyAt[a], readyAt[b])
+                    : Long.compare(submitted[a], submitted[b]));
+        }
+    }
+
+    // --- For policies ---
+
+    ProcessTable table() { return table; }
+    int time() { return time; }
+    int remaining(int row) { return remaining[row]; }
+
+    // Live remaining times by row; only the running row's entry changes
+    int[] remainingTimes() { return remaining; }
+
+    // Order in which rows were admitted. Compare entries by their difference,
+    // an online run may wrap around.
+    int[] admissionOrder() { return admitted; }
+
+    SchedulingPolicy policy() { return policy; }
+
+    // Rank of each row when ordered by arrival, then name, then submission
+    // (workload row). Compare entries by their difference. Online, a row is
+    // ranked when it is admitted, so ask before the run starts.
+    int[] tieRanks() {
+        if (state.tieRank == null) state.tieRank = rankOnAdmit ? new int[table.size()] : rankWorkload();
+        return state.tieRank;
+    }
+
+    // Name id that last held the CPU, -1 for nobody (see IdleRule)
+    int lastName() { return last; }
+
+    // Arrival time of the next process not admitted yet, MAX_VALUE if none
+    int nextArrivalTime() {
+        if (pending != null) return pending.isEmpty() ? Integer.MAX_VALUE : readyAt[pending.peek()];
+        return next < rows.length ? table.arrival(rows[next]) : Integer.MAX_VALUE;
+    }
+
+    // Adds a dispatch to executionOrder (dropped when a timeline sink is used)
+    void record(int row) {
+        if (sink == null) executionOrder.add(table.name(row));
+    }
+
+    // --- Loop ---
+
+    void run(SchedulingPolicy policy) {
+        attach(policy);
+        advance(Integer.MAX_VALUE);
+        MetricsRegistry.recordRun(this);
+    }
+
+    void attach(SchedulingPolicy policy) { this.policy = policy; }
+
+    // Called with each row as it completes, after the policy has been told
+    void onCompletion(IntConsumer listener) { this.onCompletion = listener; }
+
+    void balancer(Balancer balancer) { this.balancer = balancer; }
+
+    // Online: hands over a filled slot. Its arrival must not be before the
+    // limit of the last advance().
+    void submit(int slot) {
+        submit(slot, table.arrival(slot), null);
+    }
+
+    // SMP: row becomes ready here at time; from is the policy that held it
+    // last (the policy then adopts it), null for a new arrival
+    void submit(int row, int time, SchedulingPolicy from) {
+        if (from != null) {
+            if (state.from == null) state.from = new SchedulingPolicy[table.size()];
+            state.from[row] = from;
+        }
+        readyAt[row] = time;
+        submitted[row] = submitCount++;
+        pending.add(row);
+        starved = false;
+        arrivalAt(time);
+    }
+
+    // A run that was cut at the next arrival has to stop at this one instead
+    void arrivalAt(int time) {
+        if (phase == RUNNING && policy.runsToNextArrival() && time < runEnd)
+            runEnd = Math.max(this.time + 1, time);
+    }
+
+    // Time of the next event advance() would handle, MAX_VALUE while it waits for work
+    int nextEventTime() {
+        switch (phase) {
+            case SELECT:    return starved ? Integer.MAX_VALUE : time;
+            case SWITCHING: return time + 1;
+            case RUNNING:   return runEnd;
+            default:        return nextArrivalTime();
+        }
+    }
+
+    // Nothing left to do: everything that arrived has completed
+    boolean finished() { return nextEventTime() == Integer.MAX_VALUE; }
+
+    // SMP: a queue no CPU runs, clocked and fed up to limit but never dispatched
+    void queueUntil(int limit) {
+        admit();
+        while (time + 1 < limit) {
+            time++;
+            policy.onClock(time);
+            admit();
+        }
+    }
+
+    // Handles every event before limit. Anything due at limit or later (a
+    // dispatch, the end of a run, a switch tick, an arrival) waits for the next
+    // call, since more processes may still be submitted for that time. Also
+    // returns once nothing is ready and nothing is left to arrive.
+    void advance(int limit) {
+        while (true) {
+            switch (phase) {
+                case SELECT:
+                    if (time >= limit) return;
+                    events++;
+                    if (balancer != null) balancer.beforeSelect(this);
+                    admit();
+                    row = policy.select();
+                    if (row == NONE) {
+                        if (balancer != null && nextArrivalTime() == Integer.MAX_VALUE) balancer.starved(this);
+                        int due = nextArrivalTime();
+                        if (due == Integer.MAX_VALUE) {
+                            starved = true;
+                            return;
+                        }
+                        if (due <= time) break;       // handed work for right now
+                        goIdle();
+                    } else if (last != NONE && last != table.nameId(row)) {
+                        retry = policy.onContextSwitch(row);
+                        switchLeft = contextSwitch;
+                        switches++;
+                        phase = SWITCHING;
+                    } else {
+                        startRun();
+                    }
+                    break;
+
+                case SWITCHING:
+                    while (switchLeft > 0) {
+                        if (time + 1 >= limit) return;
+                        events++;
+                        time++;
+                        switchLeft--;
+                        policy.onClock(time);
+                        admit();
+                    }
+                    if (row == NONE) {
+                        last = NONE;              // switched out to go idle
+                        phase = SELECT;           // something may have arrived meanwhile
+                    } else if (retry) {
+                        last = table.nameId(row);
+                        phase = SELECT;
+                    } else {
+                        startRun();
+                    }
+                    break;
+
+                case RUNNING:
+                    if (runEnd >= limit) return;
+                    events++;
+                    remaining[row] -= runEnd - time;
+                    if (sink != null) sink.slice(row, time, runEnd);
+                    time = runEnd;
+
+                    policy.onClock(time);
+                    admit();
+                    phase = SELECT;
+
+                    if (remaining[row] == 0) {
+                        completion[row] = time;
+                        state.live--;
+                        latency.completed(time - table.arrival(row), table.burst(row));
+                        policy.onComplete(row);
+                        if (onCompletion != null) onCompletion.accept(row);
+                    } else {
+                        policy.afterRun(row);
+                    }
+                    break;
+
+                default: // IDLE
+                    int due = nextArrivalTime();
+                    if (due >= limit) return;
+                    events++;
+                    idleTicks += due - time;
+                    time = due;
+                    policy.onClock(time);
+                    admit();
+                    phase = SELECT;
+                    break;
+            }
+        }
+    }
+
+    // --- Results (by row) ---
+
+    int completionTime(int row) { return completion[row]; }
+
+    // Context switches started, including switching out to go idle
+    int contextSwitches() { return switches; }
+
+    // Counters of this core and its policy so far. On an SMP CPU the
+    // high-water mark is the machine's.
+    RunMetrics metrics() {
+        RunMetrics m = new RunMetrics();
+        m.add(RunMetrics.Counter.RUNS, 1);
+        m.add(RunMetrics.Counter.SIMULATED_TICKS, time);
+        m.add(RunMetrics.Counter.EVENTS, events);
+        m.add(RunMetrics.Counter.IDLE_TICKS, idleTicks);
+        m.add(RunMetrics.Counter.CONTEXT_SWITCHES, switches);
+        m.add(RunMetrics.Counter.READY_HIGH_WATER, state.liveHighWater);
+        policy.metrics(m);
+        return m;
+    }
+
+    // Waiting, turnaround and response times of the rows done so far. On an
+    // SMP CPU only the ones this CPU dispatched first or finished.
+    LatencyStats latency() { return latency; }
+
+    int[] turnaround() {
+        int n = table.size();
+        int[] t = new int[n];
+        for (int r = 0; r < n; r++) t[r] = completion[r] - table.arrival(r);
+        return t;
+    }
+
+    int[] waiting() {
+        int[] w = turnaround();
+        for (int r = 0; r < w.length; r++) w[r] -= table.burst(r);
+        return w;
+    }
+
+    List<String> executionOrder() { return executionOrder; }
+
+    TimelineSink sink() { return sink; }
+
+    SJFResult result() {
+        return ResultBuilder.build(workload, waiting(), turnaround(), executionOrder, latency);
+    }
+
+    // --- Checkpoints (see Checkpoint) ---
+
+    // Where the loop stopped and the per-row arrays, then the policy's part.
+    // The trace is not included: checkpointed runs send it to a sink. Only
+    // batch runs: online and SMP rows come from outside.
+    void save(DataOutput out) throws IOException {
+        if (pending != null) throw new IllegalStateException("only batch runs can be checkpointed");
+        out.writeInt(contextSwitch);
+        out.writeInt(phase);
+        out.writeInt(row);
+        out.writeInt(switchLeft);
+        out.writeInt(runEnd);
+        out.writeBoolean(retry);
+        out.writeInt(time);
+        out.writeInt(last);
+        out.writeInt(next);
+        out.writeInt(switches);
+        out.writeBoolean(starved);
+        out.writeLong(events);
+        out.writeLong(idleTicks);
+        latency.save(out);
+
+        Checkpoint.writeInts(out, remaining);
+        Checkpoint.writeInts(out, completion);
+        Checkpoint.writeInts(out, admitted);
+        out.writeInt(state.admitCount);
+        out.writeInt(state.live);
+        out.writeInt(state.liveHighWater);
+
+        policy.save(out);
+    }
+
+    // Into a core that has not run yet, over the same workload, policy attached
+    void restore(DataInput in) throws IOException {
+        if (pending != null) throw new IllegalStateException("only batch runs can be checkpointed");
+        Checkpoint.expect("context switch", in.readInt(), contextSwitch);
+        phase = in.readInt();
+        row = in.readInt();
+        switchLeft = in.readInt();
+        runEnd = in.readInt();
+        retry = in.readBoolean();
+        time = in.readInt();
+        last = in.readInt();
+        next = in.readInt();
+        switches = in.readInt();
+        starved = in.readBoolean();
+        events = in.readLong();
+        idleTicks = in.readLong();
+        latency.restore(in);
+
+        Checkpoint.readInts(in, remaining);
+        Checkpoint.readInts(in, completion);
+        Checkpoint.readInts(in, admitted);
+        state.admitCount = in.readInt();
+        state.live = in.readInt();
+        state.liveHighWater = in.readInt();
+
+        policy.restore(in);
+    }
+
+    // --- Helpers ---
+
+    private void startRun() {
+        // Nothing is taken off remaining before the first run ends
+        if (remaining[row] == table.burst(row)) latency.dispatched(time - table.arrival(row));
+        last = table.nameId(row);
+        runEnd = time + policy.runLength(row);
+        phase = RUNNING;
+    }
+
+    private void goIdle() {
+        switch (policy.idleRule()) {
+            case SWITCH_OUT:
+                if (last != NONE) {
+                    retry = false;
+                    switchLeft = contextSwitch;
+                    switches++;
+                    phase = SWITCHING;
+                    return;
+                }
+                break;
+            case FORGET_LAST:
+                last = NONE;
+                break;
+            default:
+                break;
+        }
+        phase = IDLE;
+    }
+
+    private void admit() {
+        if (pending == null) {
+            while (next < rows.length && table.arrival(rows[next]) <= time)
+                arrive(rows[next++]);
+            return;
+        }
+
+        while (!pending.isEmpty() && readyAt[pending.peek()] <= time) {
+            // all rows of one ready time, in submission order
+            int due = readyAt[pending.peek()];
+            int count = 0;
+            while (!pending.isEmpty() && readyAt[pending.peek()] == due)
+                group[count++] = pending.poll();
+
+            if (rankOnAdmit && state.tieRank != null) rankGroup(count);
+            for (int i = 0; i < count; i++) arrive(group[i]);
+        }
+    }
+
+    private void arrive(int row) {
+        SchedulingPolicy from = state.from == null ? null : state.from[row];
+        if (from != null) {
+            state.from[row] = null;
+            policy.adopt(row, from);
+            return;
+        }
+        remaining[row] = table.burst(row);
+        admitted[row] = state.admitCount++;
+        if (++state.live > state.liveHighWater) state.liveHighWater = state.live;
+        policy.onArrival(row);
+    }
+
+    // byArrival is already in arrival order, so only runs of equal arrival
+    // need sorting, by (name id, position) packed into one long.
+    private int[] rankWorkload() {
+        int[] rows = workload.byArrival();
+        int n = rows.length;
+        int[] rank = new int[n];
+        long[] keys = new long[n];
+
+        for (int start = 0, end; start < n; start = end) {
+            int arrival = table.arrival(rows[start]);
+            end = start + 1;
+            while (end < n && table.arrival(rows[end]) == arrival) end++;
+
+            for (int k = start; k < end; k++)
+                keys[k] = ((long) table.nameId(rows[k]) << 32) | k;
+            Arrays.sort(keys, start, end);
+            for (int j = start; j < end; j++) rank[rows[(int) keys[j]]] = j;
+        }
+        return rank;
+    }
+
+    // Slot name ids are not in name order: sort the group by name (stable, so
+    // equal names stay in submission order) and rank on from the last group
+    private void rankGroup(int count) {
+        Integer[] order = new Integer[count];
+        for (int i = 0; i < count; i++) order[i] = group[i];
+        Arrays.sort(order, (a, b) -> table.name(a).compareTo(table.name(b)));
+        for (Integer slot : order) state.tieRank[slot] = state.rankCount++;
+    }
+}
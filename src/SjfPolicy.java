@@ -0,0 +1,79 @@
+import java.io.*;
+
+// ======================= SJF POLICY =======================
+// Preemptive shortest-remaining-time-first. Shortest remaining wins, ties go to
+// the earlier arrival (then the earlier row). A run lasts until the process
+// finishes or the next arrival, since only an arrival can change the decision.
+// Admission order is arrival order, so it settles ties on its own.
+class SjfPolicy implements SchedulingPolicy {
+
+    private final SimulationCore core;
+    private final ProcessTable w;
+    private final IndexedMinHeap ready;
+    private int horizon;              // first arrival since the last select()
+    private int cut = -1;             // row whose run an arrival cut short
+    private long preemptions;
+
+    SjfPolicy(SimulationCore core) {
+        this.core = core;
+        this.w = core.table();
+        int[] remaining = core.remainingTimes();
+        int[] admitted = core.admissionOrder();
+        this.ready = new IndexedMinHeap(w.size(), (a, b) -> remaining[a] != remaining[b]
+                ? Integer.compare(remaining[a], remaining[b])
+                : Integer.compare(admitted[a] - admitted[b], 0));
+    }
+
+    public void onArrival(int row) {
+        ready.add(row);
+        horizon = Math.min(horizon, w.arrival(row));
+    }
+
+    public int select() {
+        if (ready.isEmpty()) return -1;
+        int row = ready.poll();
+        if (cut != -1 && row != cut) preemptions++;
+        cut = -1;
+        if (w.nameId(row) != core.lastName()) core.record(row);
+        horizon = core.nextArrivalTime();
+        return row;
+    }
+
+    // Arrivals during a context switch are only looked at after the first tick.
+    // Online, a process may be submitted after select(); the core still has it.
+    public int runLength(int row) {
+        long untilArrival = (long) Math.min(horizon, core.nextArrivalTime()) - core.time();
+        return (int) Math.min(core.remaining(row), Math.max(1, untilArrival));
+    }
+
+    public void afterRun(int row) {
+        ready.add(row);
+        cut = row;
+    }
+
+    public void onComplete(int row) {}
+
+    public IdleRule idleRule() { return IdleRule.FORGET_LAST; }
+
+    public boolean runsToNextArrival() { return true; }
+
+    public int steal() { return ready.isEmpty() ? -1 : ready.poll(); }
+
+    public void metrics(RunMetrics into) { into.add(RunMetrics.Counter.PREEMPT_SHORTER, preemptions); }
+
+    public boolean checkpointable() { return true; }
+
+    public void save(DataOutput out) throws IOException {
+        out.writeInt(horizon);
+        out.writeInt(cut);
+        out.writeLong(preemptions);
+        Checkpoint.writeInts(out, ready.ids());
+    }
+
+    public void restore(DataInput in) throws IOException {
+        horizon = in.readInt();
+        cut = in.readInt();
+        preemptions = in.readLong();
+        for (int row : Checkpoint.readInts(in)) ready.add(row);
+    }
+}
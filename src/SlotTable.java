@@ -0,0 +1,101 @@
+import java.util.*;
+
+// ======================= SLOT TABLE =======================
+// Process table for online simulation. A fixed number of slots, each holding
+// one submitted process until it finishes; the slot then goes back on the free
+// list. Names are interned while some slot uses them, so the table never grows
+// past its capacity however long the simulation runs.
+//
+// Unlike Workload, name ids say nothing about name order.
+final class SlotTable implements ProcessTable {
+
+    private final int capacity;
+    private final int[] arrival, burst, priority, quantum, nameId;
+    private final int[] freeSlots;
+    private int freeCount;
+
+    private final Map<String, Integer> ids = new HashMap<>();
+    private final String[] names;        // by name id
+    private final int[] nameRefs;        // slots using each name id
+    private final int[] freeIds;
+    private int freeIdCount;
+    private int held = -1;               // unused id kept while the core still compares against it
+
+    SlotTable(int capacity) {
+        if (capacity <= 0) throw new IllegalArgumentException("capacity must be positive, got " + capacity);
+        this.capacity = capacity;
+        arrival = new int[capacity];
+        burst = new int[capacity];
+        priority = new int[capacity];
+        quantum = new int[capacity];
+        nameId = new int[capacity];
+        freeSlots = new int[capacity];
+        for (int s = 0; s < capacity; s++) freeSlots[s] = capacity - 1 - s;
+        freeCount = capacity;
+
+        // one spare id for the held name
+        names = new String[capacity + 1];
+        nameRefs = new int[capacity + 1];
+        freeIds = new int[capacity + 1];
+        for (int i = 0; i <= capacity; i++) freeIds[i] = capacity - i;
+        freeIdCount = capacity + 1;
+    }
+
+    public int size() { return capacity; }
+    public int arrival(int slot) { return arrival[slot]; }
+    public int burst(int slot) { return burst[slot]; }
+    public int priority(int slot) { return priority[slot]; }
+    public int quantum(int slot) { return quantum[slot]; }
+    public int nameId(int slot) { return nameId[slot]; }
+    public String name(int slot) { return names[nameId[slot]]; }
+
+    int inUse() { return capacity - freeCount; }
+
+    int add(String name, int arrivalTime, int burstTime, int prio, int q) {
+        if (freeCount == 0)
+            throw new IllegalStateException("all " + capacity + " slots are in flight");
+        int slot = freeSlots[--freeCount];
+        arrival[slot] = arrivalTime;
+        burst[slot] = burstTime;
+        priority[slot] = prio;
+        quantum[slot] = q;
+        nameId[slot] = intern(name);
+        return slot;
+    }
+
+    // keep: the name id the core last ran, which must not go to another name yet
+    void release(int slot, int keep) {
+        freeSlots[freeCount++] = slot;
+        int id = nameId[slot];
+        if (--nameRefs[id] > 0) return;
+        unhold(keep);
+        if (id == keep) held = id;
+        else drop(id);
+    }
+
+    // Frees the held name id once the core has moved on from it
+    void unhold(int keep) {
+        if (held == -1 || held == keep) return;
+        if (nameRefs[held] == 0) drop(held);
+        held = -1;
+    }
+
+    // --- Helpers ---
+
+    private int intern(String name) {
+        Integer id = ids.get(name);
+        if (id == null) {
+            id = freeIds[--freeIdCount];
+            ids.put(name, id);
+            names[id] = name;
+        }
+        nameRefs[id]++;
+        return id;
+    }
+
+    private void drop(int id) {
+        ids.remove(names[id]);
+        names[id] = null;
+        freeIds[freeIdCount++] = id;
+    }
+}
@@ -0,0 +1,260 @@
+import java.util.*;
+import java.util.function.Function;
+
+// ======================= SMP SIMULATOR =======================
+// N CPUs, each a SimulationCore with its own policy (so its own ready queue),
+// stepped together from one event time to the next. Where a process runs is
+// up to the balancing mode:
+//
+//   PER_CORE       an arrival goes to the CPU holding the fewest processes and stays there
+//   WORK_STEALING  as PER_CORE, and a CPU that runs dry takes the next process
+//                  of the CPU holding the most
+//   GLOBAL_QUEUE   arrivals wait in one machine-wide queue; before each dispatch a
+//                  CPU puts back what it had ready and takes the best one from it
+//
+// A process that already ran pays migrationCost ticks whenever it moves to
+// another CPU. Context switches are counted per CPU, and each CPU gets its
+// own timeline (pids are workload rows).
+//
+// With one CPU, PER_CORE and WORK_STEALING give exactly the single-CPU schedule.
+// AG keeps its running process outside the ready queue, so under GLOBAL_QUEUE
+// its 25% / 50% checks only see the one process the CPU took from the queue.
+final class SmpSimulator {
+
+    enum Balancing { PER_CORE, WORK_STEALING, GLOBAL_QUEUE }
+
+    static final class Result extends SJFResult {
+        final RleTimeline[] timelines;          // by CPU
+        final int[] contextSwitches, migrations;
+
+        Result(List<String> order, List<ProcessResult> results, double avgWait, double avgTAT,
+               LatencyStats latency, RleTimeline[] timelines, int[] contextSwitches, int[] migrations) {
+            super(order, results, avgWait, avgTAT, latency);
+            this.timelines = timelines;
+            this.contextSwitches = contextSwitches;
+            this.migrations = migrations;
+        }
+    }
+
+    private final int cpus;
+    private Balancing balancing = Balancing.WORK_STEALING;
+    private int migrationCost;
+    private int contextSwitch = 1, rrQuantum = 4, agingInterval = 5;
+
+    SmpSimulator(int cpus) {
+        if (cpus <= 0) throw new IllegalArgumentException("need at least one CPU, got " + cpus);
+        this.cpus = cpus;
+    }
+
+    SmpSimulator balancing(Balancing balancing) { this.balancing = balancing; return this; }
+    SmpSimulator migrationCost(int ticks) { this.migrationCost = ticks; return this; }
+
+    // For run(Workload, Algorithm); AG always runs without a context switch
+    SmpSimulator parameters(int contextSwitch, int rrQuantum, int agingInterval) {
+        this.contextSwitch = contextSwitch;
+        this.rrQuantum = rrQuantum;
+        this.agingInterval = agingInterval;
+        return this;
+    }
+
+    Result run(Workload w, ComparisonRunner.Algorithm algorithm) {
+        switch (algorithm) {
+            case SJF:
+                return run(w, contextSwitch, SjfPolicy::new);
+            case RR:
+                return run(w, contextSwitch, core -> new RoundRobinPolicy(core, rrQuantum));
+            case PRIORITY:
+                return run(w, contextSwitch, core -> new PriorityPolicy(core, agingInterval,
+                        PreemptivePriorityScheduling.QueueBackend.HEAP));
+            default:
+                return run(w, 0, AGPolicy::new);
+        }
+    }
+
+    // One policy instance per CPU (and one for the global queue)
+    Result run(Workload w, int contextSwitch, Function<SimulationCore, SchedulingPolicy> policy) {
+        return new Machine(w, contextSwitch, policy).run();
+    }
+
+    // ======================= MACHINE =======================
+    // State of one run
+    private final class Machine {
+        final Workload w;
+        final SimulationCore[] cores;
+        final RleTimeline[] timelines;
+        final int[] load;                  // rows held by each CPU (not for GLOBAL_QUEUE)
+        final int[] migrations;
+        final int[] lastCpu, completedOn;  // by row
+        final SimulationCore pool;         // GLOBAL_QUEUE only
+        int now, moved;
+
+        Machine(Workload w, int contextSwitch, Function<SimulationCore, SchedulingPolicy> policy) {
+            this.w = w;
+            SimulationCore.RowState state = new SimulationCore.RowState(w.size());
+            cores = new SimulationCore[cpus];
+            timelines = new RleTimeline[cpus];
+            load = new int[cpus];
+            migrations = new int[cpus];
+            lastCpu = new int[w.size()];
+            completedOn = new int[w.size()];
+            Arrays.fill(lastCpu, -1);
+
+            for (int c = 0; c < cpus; c++) {
+                int cpu = c;
+                timelines[c] = new RleTimeline();
+                cores[c] = new SimulationCore(w, state, contextSwitch, timelines[c]);
+                cores[c].attach(policy.apply(cores[c]));
+                cores[c].balancer(new Cpu(cpu));
+                cores[c].onCompletion(row -> {
+                    if (balancing != Balancing.GLOBAL_QUEUE) load[cpu]--;
+                    completedOn[row] = cpu;
+                });
+            }
+
+            if (balancing == Balancing.GLOBAL_QUEUE) {
+                pool = new SimulationCore(w, state, 0, TimelineSink.DISCARD);
+                pool.attach(policy.apply(pool));
+            } else {
+                pool = null;
+            }
+        }
+
+        Result run() {
+            int[] order = w.byArrival();
+            int n = order.length, next = 0;
+
+            while (true) {
+                int t = next < n ? w.arrival(order[next]) : Integer.MAX_VALUE;
+                for (SimulationCore core : cores) t = Math.min(t, core.nextEventTime());
+                if (t == Integer.MAX_VALUE) break;
+                now = t = Math.max(t, now);
+
+                // Everything before t, then arrivals at t, then the events at t
+                for (SimulationCore core : cores) core.advance(t);
+                while (next < n && w.arrival(order[next]) == t) place(order[next++]);
+                if (pool != null) pool.queueUntil(t + 1);
+
+                // A CPU that starved earlier in the pass may have work to take now
+                do {
+                    moved = 0;
+                    for (SimulationCore core : cores) core.advance(t + 1);
+                } while (moved > 0);
+            }
+            return result();
+        }
+
+        void place(int row) {
+            if (pool != null) {
+                pool.submit(row, now, null);
+                // SJF runs only looked as far as their own CPU's next arrival
+                for (SimulationCore core : cores) core.arrivalAt(now);
+                return;
+            }
+            int cpu = 0;
+            for (int c = 1; c < cpus; c++)
+                if (load[c] < load[cpu]) cpu = c;
+            load[cpu]++;
+            lastCpu[row] = cpu;
+            cores[cpu].submit(row, now, null);
+        }
+
+        // Moves row to cpu, paying the migration cost if it already ran elsewhere
+        void handOver(int row, int cpu, SchedulingPolicy from) {
+            boolean migrates = lastCpu[row] != -1 && lastCpu[row] != cpu
+                    && cores[cpu].remaining(row) < w.burst(row);
+            if (migrates) migrations[cpu]++;
+            lastCpu[row] = cpu;
+            cores[cpu].submit(row, migrates ? now + migrationCost : now, from);
+            moved++;
+        }
+
+        Result result() {
+            int n = w.size();
+            List<ProcessResult> results = new ArrayList<>(n);
+            double tw = 0, tt = 0;
+            for (int r = 0; r < n; r++) {
+                int turnaround = cores[0].completionTime(r) - w.arrival(r);
+                int waiting = turnaround - w.burst(r);
+                SchedulingPolicy p = cores[completedOn[r]].policy();
+                List<Integer> history = p instanceof AGPolicy
+                        ? AGResultBuilder.boxed(((AGPolicy) p).quantumHistory(r)) : new ArrayList<>();
+                results.add(new ProcessResult(w.name(r), waiting, turnaround, history));
+                tw += waiting;
+                tt += turnaround;
+            }
+
+            int[] switches = new int[cpus];
+            LatencyStats latency = new LatencyStats();
+            for (int c = 0; c < cpus; c++) {
+                switches[c] = cores[c].contextSwitches();
+                latency.merge(cores[c].latency());
+            }
+            return new Result(executionOrder(), results, tw / n, tt / n, latency, timelines, switches, migrations);
+        }
+
+        // Slices actually run on all CPUs by start time, lower CPU first on a tie.
+        // Unlike the single-CPU order, a dispatch dropped during its context
+        // switch does not show up.
+        List<String> executionOrder() {
+            int total = 0;
+            for (RleTimeline t : timelines) total += t.size();
+            long[] keys = new long[total];
+            int[] pids = new int[total];
+            int k = 0;
+            for (RleTimeline t : timelines) {
+                for (int i = 0; i < t.size(); i++, k++) {
+                    keys[k] = ((long) t.start(i) << 32) | k;
+                    pids[k] = t.pid(i);
+                }
+            }
+            Arrays.sort(keys);
+            List<String> order = new ArrayList<>(total);
+            for (long key : keys) order.add(w.name(pids[(int) key]));
+            return order;
+        }
+
+        // ======================= CPU BALANCER =======================
+        private final class Cpu implements SimulationCore.Balancer {
+            final int cpu;
+            boolean migrated;      // the row taken last paid the migration cost
+
+            Cpu(int cpu) { this.cpu = cpu; }
+
+            public void beforeSelect(SimulationCore core) {
+                if (pool == null) return;
+                if (core.nextArrivalTime() != Integer.MAX_VALUE) return;   // one is on its way
+
+                // It paid to get here, so it runs here rather than going back
+                if (migrated) {
+                    migrated = false;
+                    return;
+                }
+
+                // Put back what is ready here, then take the best of everything
+                SchedulingPolicy local = core.policy(), global = pool.policy();
+                for (int row = local.steal(); row != -1; row = local.steal()) global.adopt(row, local);
+
+                int row = global.steal();
+                if (row == -1) return;
+                handOver(row, cpu, global);
+                migrated = core.nextArrivalTime() > core.time();
+            }
+
+            public void starved(SimulationCore core) {
+                if (balancing != Balancing.WORK_STEALING) return;
+
+                int victim = -1;
+                for (int c = 0; c < cpus; c++)
+                    if (c != cpu && load[c] >= 2 && (victim == -1 || load[c] > load[victim])) victim = c;
+                if (victim == -1) return;
+
+                SchedulingPolicy from = cores[victim].policy();
+                int row = from.steal();
+                if (row == -1) return;
+                load[victim]--;
+                load[cpu]++;
+                handOver(row, cpu, from);
+            }
+        }
+    }
+}
@@ -0,0 +1,173 @@
+import java.io.IOException;
+import java.nio.file.*;
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.stream.Stream;
+
+// ======================= SUITE RUNNER =======================
+// Regression suite over a directory tree: every .json file under it is a
+// workload with expected results, and each algorithm it has expectations for
+// is one check (Other_Schedulers files have SJF, RR and maybe Priority; AG
+// files have AG). Each file is one task on a thread pool that parses it once,
+// through a WorkloadCache, and runs all its checks. Checks come back in
+// discovery order whatever order they finish in, so the report is the same
+// as a serial run.
+final class SuiteRunner implements AutoCloseable {
+
+    // One algorithm on one file
+    static final class Check {
+        final Path file;
+        final ComparisonRunner.Algorithm algorithm;
+        final SJFResult actual;
+        final SJFExpected expected;
+        final boolean passed;
+
+        Check(Path file, ComparisonRunner.Algorithm algorithm, SJFResult actual, SJFExpected expected) {
+            this.file = file;
+            this.algorithm = algorithm;
+            this.actual = actual;
+            this.expected = expected;
+            this.passed = passes(actual, expected);
+        }
+    }
+
+    static final class Report {
+        final int files;
+        final List<Check> checks;
+
+        Report(int files, List<Check> checks) {
+            this.files = files;
+            this.checks = checks;
+        }
+
+        int passed() {
+            int n = 0;
+            for (Check c : checks) if (c.passed) n++;
+            return n;
+        }
+
+        int failed() { return checks.size() - passed(); }
+    }
+
+    private final WorkloadCache cache;
+    private final ExecutorService pool;
+
+    SuiteRunner(WorkloadCache cache) {
+        this(cache, Runtime.getRuntime().availableProcessors());
+    }
+
+    SuiteRunner(WorkloadCache cache, int threads) {
+        this.cache = cache;
+        pool = Executors.newFixedThreadPool(Math.max(1, threads), r -> {
+            Thread t = new Thread(r, "suite");
+            t.setDaemon(true);
+            return t;
+        });
+    }
+
+    // Every .json file under root, in natural order of the path (test_2 before test_10)
+    static List<Path> discover(Path root) throws IOException {
+        List<Path> files = new ArrayList<>();
+        try (Stream<Path> walk = Files.walk(root)) {
+            walk.filter(p -> Files.isRegularFile(p) && p.getFileName().toString().endsWith(".json"))
+                    .forEach(files::add);
+        }
+        files.sort((a, b) -> naturalCompare(a.toString(), b.toString()));
+        return files;
+    }
+
+    Report run(Path root) throws IOException {
+        return run(discover(root));
+    }
+
+    Report run(List<Path> files) {
+        List<Future<List<Check>>> futures = new ArrayList<>(files.size());
+        for (Path file : files) futures.add(pool.submit(() -> check(file)));
+
+        List<Check> checks = new ArrayList<>();
+        for (Future<List<Check>> f : futures) checks.addAll(ComparisonRunner.join(f));
+        return new Report(files.size(), checks);
+    }
+
+    // Every algorithm file has expectations for, in Algorithm order
+    List<Check> check(Path file) throws IOException {
+        WorkloadFile wf = cache.get(file);
+        List<Check> checks = new ArrayList<>(4);
+        for (ComparisonRunner.Algorithm a : ComparisonRunner.Algorithm.values()) {
+            SJFExpected expected = expected(wf, a);
+            if (expected != null) checks.add(new Check(file, a, ComparisonRunner.simulate(wf, a), expected));
+        }
+        return checks;
+    }
+
+    // Null when file has nothing for a. Older AG files keep their
+    // expectation at the top level instead of under "AG".
+    static SJFExpected expected(WorkloadFile file, ComparisonRunner.Algorithm a) {
+        ExpectedOutput out = file.expectedOutput;
+        if (out == null) return null;
+        switch (a) {
+            case SJF:
+                return out.SJF;
+            case RR:
+                return out.RR;
+            case PRIORITY:
+                return out.Priority;
+            case AG:
+                if (out.AG != null || out.executionOrder == null) return out.AG;
+                SJFExpected ag = new SJFExpected();
+                ag.executionOrder = out.executionOrder;
+                ag.processResults = out.processResults;
+                ag.averageWaitingTime = out.averageWaitingTime;
+                ag.averageTurnaroundTime = out.averageTurnaroundTime;
+                return ag;
+            default:
+                throw new IllegalArgumentException("unknown algorithm " + a);
+        }
+    }
+
+    // Same rule as the unit-test mode: every expected row's waiting and
+    // turnaround time, and both averages to 0.01
+    static boolean passes(SJFResult actual, SJFExpected expected) {
+        if (expected.processResults == null || actual.processResults.size() < expected.processResults.size())
+            return false;
+        for (int i = 0; i < expected.processResults.size(); i++) {
+            ProcessResult a = actual.processResults.get(i), e = expected.processResults.get(i);
+            if (a.waitingTime != e.waitingTime || a.turnaroundTime != e.turnaroundTime) return false;
+        }
+        return Math.abs(actual.avgWait - expected.averageWaitingTime) < 0.01
+                && Math.abs(actual.avgTAT - expected.averageTurnaroundTime) < 0.01;
+    }
+
+    public void close() {
+        pool.shutdownNow();
+    }
+
+    // --- Helpers ---
+
+    // Runs of digits compare by value, everything else char by char
+    private static int naturalCompare(String a, String b) {
+        int i = 0, j = 0;
+        while (i < a.length() && j < b.length()) {
+            char x = a.charAt(i), y = b.charAt(j);
+            if (Character.isDigit(x) && Character.isDigit(y)) {
+                int si = i, sj = j;
+                while (si < a.length() && a.charAt(si) == '0') si++;
+                while (sj < b.length() && b.charAt(sj) == '0') sj++;
+                int ei = si, ej = sj;
+                while (ei < a.length() && Character.isDigit(a.charAt(ei))) ei++;
+                while (ej < b.length() && Character.isDigit(b.charAt(ej))) ej++;
+                if (ei - si != ej - sj) return (ei - si) - (ej - sj);
+                int c = a.substring(si, ei).compareTo(b.substring(sj, ej));
+                if (c != 0) return c;
+                i = ei;
+                j = ej;
+            } else {
+                if (x != y) return x - y;
+                i++;
+                j++;
+            }
+        }
+        int c = (a.length() - i) - (b.length() - j);
+        return c != 0 ? c : a.compareTo(b);
+    }
+}
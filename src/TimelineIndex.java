@@ -0,0 +1,127 @@
+import java.util.Arrays;
+
+// ======================= TIMELINE INDEX =======================
+// Queries over a finished RleTimeline without re-simulating. The slices are
+// already sorted by start and never overlap, so "who held the CPU at t" is a
+// binary search over the starts. For CPU time per process each process also
+// gets its own list of slices with running totals (one offsets array, one
+// list for everybody), so a range sum is a binary search in that list. A
+// window is walked from the first slice it touches: a small window of a huge
+// run costs O(log n + slices in it), and nothing is built for the rest.
+//
+// Times between slices are idle or context switches; pidAt() gives -1 there.
+final class TimelineIndex {
+
+    private final RleTimeline t;
+    private final int size;
+    private final long[] busyBefore;   // CPU time of slices 0..i-1, size + 1 entries
+    private final int[] offsets;       // pid p's slices are order[offsets[p] .. offsets[p + 1])
+    private final int[] order;         // slice indices grouped by pid, in time order
+    private final long[] before;       // CPU time of the same pid's earlier slices, parallel to order
+
+    // The timeline must not grow any more
+    TimelineIndex(RleTimeline timeline) {
+        this.t = timeline;
+        this.size = timeline.size();
+
+        int pids = 0;
+        busyBefore = new long[size + 1];
+        for (int i = 0; i < size; i++) {
+            pids = Math.max(pids, t.pid(i) + 1);
+            busyBefore[i + 1] = busyBefore[i] + (t.end(i) - t.start(i));
+        }
+
+        // Counting sort by pid keeps time order inside each pid
+        offsets = new int[pids + 1];
+        for (int i = 0; i < size; i++) offsets[t.pid(i) + 1]++;
+        for (int p = 0; p < pids; p++) offsets[p + 1] += offsets[p];
+
+        order = new int[size];
+        before = new long[size];
+        int[] fill = Arrays.copyOf(offsets, pids);
+        for (int i = 0; i < size; i++) {
+            int p = t.pid(i), k = fill[p]++;
+            order[k] = i;
+            before[k] = k == offsets[p] ? 0 : before[k - 1] + (t.end(order[k - 1]) - t.start(order[k - 1]));
+        }
+    }
+
+    int slices() { return size; }
+
+    // One past the highest pid in the timeline
+    int processes() { return offsets.length - 1; }
+
+    // Pid on the CPU during tick [time, time + 1), -1 for idle or a context switch
+    int pidAt(int time) {
+        int i = lastStartBefore((long) time + 1);
+        return i >= 0 && time < t.end(i) ? t.pid(i) : -1;
+    }
+
+    // CPU time given to anybody in [from, to)
+    long busyTime(int from, int to) {
+        return from >= to ? 0 : busyUntil(to) - busyUntil(from);
+    }
+
+    // CPU time pid got in [from, to)
+    long cpuTime(int pid, int from, int to) {
+        if (from >= to || pid < 0 || pid >= processes()) return 0;
+        return cpuUntil(pid, to) - cpuUntil(pid, from);
+    }
+
+    // Sends the slices inside [from, to) on to into, cut at the window edges
+    void window(int from, int to, TimelineSink into) {
+        if (from >= to) return;
+        int i = Math.max(0, lastStartBefore((long) from + 1));
+        if (i < size && t.end(i) <= from) i++;
+        for (; i < size && t.start(i) < to; i++)
+            into.slice(t.pid(i), Math.max(t.start(i), from), Math.min(t.end(i), to));
+    }
+
+    // One line per slice of the window: "start-end name"
+    String render(int from, int to, ProcessTable table) {
+        StringBuilder sb = new StringBuilder();
+        window(from, to, (pid, start, end) ->
+                sb.append(start).append('-').append(end).append(' ').append(table.name(pid)).append('\n'));
+        return sb.toString();
+    }
+
+    // --- Helpers ---
+
+    // Last slice starting before x, -1 if none
+    private int lastStartBefore(long x) {
+        int lo = 0, hi = size - 1, found = -1;
+        while (lo <= hi) {
+            int mid = (lo + hi) >>> 1;
+            if (t.start(mid) < x) {
+                found = mid;
+                lo = mid + 1;
+            } else {
+                hi = mid - 1;
+            }
+        }
+        return found;
+    }
+
+    // CPU time of all slices in [0, x)
+    private long busyUntil(int x) {
+        int i = lastStartBefore(x);
+        return i < 0 ? 0 : busyBefore[i] + (Math.min(t.end(i), x) - t.start(i));
+    }
+
+    // Same, pid only: search its own slice list
+    private long cpuUntil(int pid, int x) {
+        int lo = offsets[pid], hi = offsets[pid + 1] - 1, found = -1;
+        while (lo <= hi) {
+            int mid = (lo + hi) >>> 1;
+            if (t.start(order[mid]) < x) {
+                found = mid;
+                lo = mid + 1;
+            } else {
+                hi = mid - 1;
+            }
+        }
+        if (found < 0) return 0;
+        int i = order[found];
+        return before[found] + (Math.min(t.end(i), x) - t.start(i));
+    }
+}
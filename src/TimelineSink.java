@@ -0,0 +1,13 @@
+// ======================= TIMELINE SINK =======================
+// Receives the Gantt trace while a scheduler runs: one call per stretch of CPU
+// time a process got, as (workload row, start, end) with end exclusive. Slices
+// arrive in time order and never overlap; idle time and context switches are
+// simply the gaps between them. Consecutive slices of one row may touch
+// (e.g. tick-by-tick engines), sinks are free to merge them.
+interface TimelineSink {
+
+    // Drops the trace, for runs that only need the waiting / turnaround numbers
+    TimelineSink DISCARD = (pid, start, end) -> {};
+
+    void slice(int pid, int start, int end);
+}
@@ -0,0 +1,177 @@
+import java.util.*;
+import java.util.function.IntFunction;
+
+// ======================= WORKLOAD =======================
+// Columnar process table: one int[] per attribute instead of one object per
+// process, plus an interned name table. The schedulers only read it and keep
+// their per-run state (remaining time, quantum, ...) in their own arrays, so a
+// workload is never cloned and can be simulated any number of times.
+//
+// Name ids are dense and numbered in name order, so schedulers compare ids
+// instead of strings: equal ids mean equal names, and id order is compareTo order.
+final class Workload implements ProcessTable {
+
+    private final int size;
+    private final int[] arrival, burst, priority, quantum;
+    private final int[] nameId;
+    private final String[] names;
+    private final int[] byArrival;
+    private final IntFunction<String> nameSource;   // decodes names on first use, null if all are set
+
+    private Workload(int size, int[] arrival, int[] burst, int[] priority, int[] quantum,
+                     int[] nameId, String[] names) {
+        this.size = size;
+        this.arrival = arrival;
+        this.burst = burst;
+        this.priority = priority;
+        this.quantum = quantum;
+        this.nameId = nameId;
+        this.names = names;
+        this.byArrival = sortByArrival();
+        this.nameSource = null;
+    }
+
+    private Workload(int[] arrival, int[] burst, int[] priority, int[] quantum, int[] nameId,
+                     int[] byArrival, int nameCount, IntFunction<String> nameSource) {
+        this.size = arrival.length;
+        this.arrival = arrival;
+        this.burst = burst;
+        this.priority = priority;
+        this.quantum = quantum;
+        this.nameId = nameId;
+        this.names = new String[nameCount];
+        this.byArrival = byArrival;
+        this.nameSource = nameSource;
+    }
+
+    // Columns already in the shape build() gives them: name ids in name order
+    // and byArrival worked out (see BinaryWorkload). Names are decoded by
+    // nameSource the first time they are asked for.
+    static Workload ofColumns(int[] arrival, int[] burst, int[] priority, int[] quantum, int[] nameId,
+                              int[] byArrival, int nameCount, IntFunction<String> nameSource) {
+        return new Workload(arrival, burst, priority, quantum, nameId, byArrival, nameCount, nameSource);
+    }
+
+    public int size() { return size; }
+    public int arrival(int row) { return arrival[row]; }
+    public int burst(int row) { return burst[row]; }
+    public int priority(int row) { return priority[row]; }
+    public int quantum(int row) { return quantum[row]; }
+    public int nameId(int row) { return nameId[row]; }
+    public String name(int row) { return nameOf(nameId[row]); }
+
+    int nameCount() { return names.length; }
+
+    // Racing threads may both decode a name; they get equal strings
+    String nameOf(int id) {
+        String name = names[id];
+        if (name == null && nameSource != null) names[id] = name = nameSource.apply(id);
+        return name;
+    }
+
+    // Rows in arrival order, equal arrivals keep row order. Shared: do not modify.
+    int[] byArrival() { return byArrival; }
+
+    static Workload fromInputs(List<ProcessInput> inputs) {
+        Builder b = new Builder(inputs.size());
+        for (ProcessInput p : inputs)
+            b.add(p.name, p.arrival, p.burst, p.priority, p.quantum);
+        return b.build();
+    }
+
+    // Plain processes get quantum 0; AGProcess contributes its current quantum
+    static Workload fromProcesses(List<? extends Process> processes) {
+        Builder b = new Builder(processes.size());
+        for (Process p : processes) {
+            int q = p instanceof AGProcess ? ((AGProcess) p).getQuantum() : 0;
+            b.add(p.name, p.arrival, p.burst, p.priority, q);
+        }
+        return b.build();
+    }
+
+    // --- Helpers ---
+
+    private int[] sortByArrival() {
+        int[] rows = new int[size];
+        boolean sorted = true;
+        for (int r = 0; r < size; r++) {
+            rows[r] = r;
+            if (r > 0 && arrival[r] < arrival[r - 1]) sorted = false;
+        }
+        if (sorted) return rows;
+
+        // arrival in the high half, row in the low half: one primitive sort, stable by row
+        long[] keys = new long[size];
+        for (int r = 0; r < size; r++) keys[r] = ((long) arrival[r] << 32) | r;
+        Arrays.sort(keys);
+        for (int i = 0; i < size; i++) rows[i] = (int) keys[i];
+        return rows;
+    }
+
+    // ======================= BUILDER =======================
+    static final class Builder {
+        private int size;
+        private int[] arrival, burst, priority, quantum, nameId;
+        private final Map<String, Integer> ids = new HashMap<>();
+        private final List<String> names = new ArrayList<>();
+
+        Builder() { this(16); }
+
+        Builder(int capacity) {
+            capacity = Math.max(1, capacity);
+            arrival = new int[capacity];
+            burst = new int[capacity];
+            priority = new int[capacity];
+            quantum = new int[capacity];
+            nameId = new int[capacity];
+        }
+
+        int size() { return size; }
+
+        Builder add(String name, int arrivalTime, int burstTime, int prio, int q) {
+            if (size == arrival.length) grow();
+            Integer id = ids.get(name);
+            if (id == null) {
+                id = names.size();
+                ids.put(name, id);
+                names.add(name);
+            }
+            arrival[size] = arrivalTime;
+            burst[size] = burstTime;
+            priority[size] = prio;
+            quantum[size] = q;
+            nameId[size] = id;
+            size++;
+            return this;
+        }
+
+        Workload build() {
+            // Renumber the names in sorted order
+            String[] sorted = names.toArray(new String[0]);
+            Arrays.sort(sorted);
+            int[] newId = new int[sorted.length];
+            for (int i = 0; i < sorted.length; i++) newId[ids.get(sorted[i])] = i;
+
+            int[] nameIds = new int[size];
+            for (int r = 0; r < size; r++) nameIds[r] = newId[nameId[r]];
+
+            return new Workload(size,
+                    trim(arrival), trim(burst), trim(priority), trim(quantum),
+                    nameIds, sorted);
+        }
+
+        // Hands the column over without a copy when it is exactly full
+        private int[] trim(int[] column) {
+            return column.length == size ? column : Arrays.copyOf(column, size);
+        }
+
+        private void grow() {
+            int cap = arrival.length * 2;
+            arrival = Arrays.copyOf(arrival, cap);
+            burst = Arrays.copyOf(burst, cap);
+            priority = Arrays.copyOf(priority, cap);
+            quantum = Arrays.copyOf(quantum, cap);
+            nameId = Arrays.copyOf(nameId, cap);
+        }
+    }
+}
@@ -0,0 +1,62 @@
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Path;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+
+// ======================= WORKLOAD CACHE =======================
+// Parsed (or, for binary workloads, mapped) files by path. Each file is read
+// once however many threads ask for it at the same time: the first caller
+// parses, the others wait for that same result. Entries are shared, so
+// nobody may change them; the Workload is immutable already, and the
+// expected output must be treated the same way.
+//
+// A file that fails to parse is not kept, so asking again tries again.
+final class WorkloadCache {
+
+    private final ConcurrentHashMap<Path, FutureTask<WorkloadFile>> files = new ConcurrentHashMap<>();
+    private final AtomicInteger parses = new AtomicInteger();
+
+    WorkloadFile get(Path path) throws IOException {
+        Path key = path.toAbsolutePath().normalize();
+        FutureTask<WorkloadFile> task = files.get(key);
+        if (task == null) {
+            FutureTask<WorkloadFile> mine = new FutureTask<>(() -> parse(key));
+            task = files.putIfAbsent(key, mine);
+            if (task == null) {
+                task = mine;
+                mine.run();
+            }
+        }
+        try {
+            return task.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new CancellationException("interrupted while waiting for " + key);
+        } catch (ExecutionException e) {
+            files.remove(key, task);
+            Throwable cause = e.getCause();
+            if (cause instanceof IOException) throw (IOException) cause;
+            if (cause instanceof UncheckedIOException) throw ((UncheckedIOException) cause).getCause();
+            if (cause instanceof RuntimeException) throw (RuntimeException) cause;
+            if (cause instanceof Error) throw (Error) cause;
+            throw new IllegalStateException(cause);
+        }
+    }
+
+    // Files held
+    int size() { return files.size(); }
+
+    // Parses (or maps) done so far, failed ones included
+    int parses() { return parses.get(); }
+
+    void clear() { files.clear(); }
+
+    // --- Helpers ---
+
+    private WorkloadFile parse(Path path) throws IOException {
+        parses.incrementAndGet();
+        String name = path.toString();
+        return name.endsWith(BinaryWorkload.EXTENSION) ? BinaryWorkload.map(name) : WorkloadReader.read(name);
+    }
+}
@@ -0,0 +1,13 @@
+// ======================= WORKLOAD FILE =======================
+// Parsed test_cases_v3 file: workload columns plus the run parameters
+class WorkloadFile {
+    String name;
+    Workload workload;
+    int contextSwitch, rrQuantum;
+    Integer agingInterval;
+    ExpectedOutput expectedOutput;
+
+    int agingOrZero() {
+        return agingInterval != null ? agingInterval : 0;
+    }
+}
@@ -0,0 +1,170 @@
+import com.google.gson.stream.JsonWriter;
+
+import java.io.*;
+import java.nio.charset.StandardCharsets;
+import java.util.SplittableRandom;
+
+// ======================= WORKLOAD GENERATOR =======================
+// Seeded synthetic workloads. The same settings and seed always give the same
+// processes, whether they go straight into a Workload or are streamed out as a
+// test_cases_v3 file (input only, no expectedOutput). Processes are produced one
+// at a time, so writing a file never holds the workload in memory.
+//
+// Arrivals are nondecreasing: Poisson with a mean gap, or bursty (clusters of
+// geometric size that arrive together, same long-run rate). Bursts are uniform,
+// exponential or Pareto; priorities uniform or skewed (few urgent processes).
+final class WorkloadGenerator {
+
+    enum Arrivals { POISSON, BURSTY }
+    enum Bursts { UNIFORM, EXPONENTIAL, PARETO }
+    enum Priorities { UNIFORM, SKEWED }
+
+    interface ProcessSink {
+        void add(String name, int arrival, int burst, int priority, int quantum);
+    }
+
+    private int processes = 100;
+    private long seed = 1;
+    private Arrivals arrivals = Arrivals.POISSON;
+    private double meanGap = 2;
+    private double clusterSize = 8;
+    private Bursts bursts = Bursts.EXPONENTIAL;
+    private double meanBurst = 5;
+    private double paretoAlpha = 1.5;
+    private int maxBurst = 1000;
+    private Priorities priorities = Priorities.UNIFORM;
+    private int minPriority = 1, maxPriority = 10;
+    private int minQuantum = 2, maxQuantum = 8;
+    private int contextSwitch = 1, rrQuantum = 4, agingInterval = 5;
+
+    WorkloadGenerator processes(int n) { processes = n; return this; }
+    WorkloadGenerator seed(long s) { seed = s; return this; }
+    WorkloadGenerator arrivals(Arrivals a, double gap) { arrivals = a; meanGap = gap; return this; }
+    WorkloadGenerator clusterSize(double size) { clusterSize = size; return this; }
+    WorkloadGenerator bursts(Bursts b, double mean) { bursts = b; meanBurst = mean; return this; }
+    WorkloadGenerator pareto(double alpha, int cap) { paretoAlpha = alpha; maxBurst = cap; return this; }
+    WorkloadGenerator priorities(Priorities p, int min, int max) {
+        priorities = p; minPriority = min; maxPriority = max; return this;
+    }
+    WorkloadGenerator quanta(int min, int max) { minQuantum = min; maxQuantum = max; return this; }
+    WorkloadGenerator parameters(int cs, int quantum, int aging) {
+        contextSwitch = cs; rrQuantum = quantum; agingInterval = aging; return this;
+    }
+
+    Workload generate() {
+        Workload.Builder b = new Workload.Builder(processes);
+        generate(b::add);
+        return b.build();
+    }
+
+    void writeJson(String path, String name) throws IOException {
+        try (Writer out = new BufferedWriter(new OutputStreamWriter(
+                new FileOutputStream(path), StandardCharsets.UTF_8), 1 << 16)) {
+            writeJson(out, name);
+        }
+    }
+
+    void writeJson(Writer out, String name) throws IOException {
+        JsonWriter json = new JsonWriter(out);
+        json.setIndent("  ");
+        json.beginObject();
+        json.name("name").value(name);
+        json.name("input").beginObject();
+        json.name("contextSwitch").value(contextSwitch);
+        json.name("rrQuantum").value(rrQuantum);
+        json.name("agingInterval").value(agingInterval);
+        json.name("processes").beginArray();
+
+        IOException[] failed = new IOException[1];
+        generate((n, arrival, burst, priority, quantum) -> {
+            if (failed[0] != null) return;
+            try {
+                json.beginObject();
+                json.name("name").value(n);
+                json.name("arrival").value(arrival);
+                json.name("burst").value(burst);
+                json.name("priority").value(priority);
+                json.name("quantum").value(quantum);
+                json.endObject();
+            } catch (IOException e) {
+                failed[0] = e;
+            }
+        });
+        if (failed[0] != null) throw failed[0];
+
+        json.endArray();
+        json.endObject();
+        json.endObject();
+        json.flush();
+    }
+
+    void generate(ProcessSink sink) {
+        checkSettings();
+
+        SplittableRandom rnd = new SplittableRandom(seed);
+        double time = 0;
+        int leftInCluster = 0;
+
+        for (int i = 0; i < processes; i++) {
+            if (arrivals == Arrivals.POISSON) {
+                if (i > 0) time += exponential(rnd, meanGap);
+            } else if (leftInCluster-- == 0) {
+                // Clusters start clusterSize times further apart, so the rate is unchanged
+                if (i > 0) time += exponential(rnd, meanGap * clusterSize);
+                leftInCluster = geometric(rnd, clusterSize) - 1;
+            }
+
+            sink.add("P" + (i + 1), (int) time, burst(rnd),
+                    priority(rnd), minQuantum + rnd.nextInt(maxQuantum - minQuantum + 1));
+        }
+    }
+
+    // --- Helpers ---
+
+    private void checkSettings() {
+        if (processes < 0) throw new IllegalArgumentException("negative process count " + processes);
+        if (minPriority > maxPriority || minQuantum > maxQuantum)
+            throw new IllegalArgumentException("empty priority or quantum range");
+        // Written as !(x >= y) so NaN is refused too
+        if (!(meanGap >= 0)) throw new IllegalArgumentException("mean arrival gap must be >= 0, got " + meanGap);
+        if (!(meanBurst >= 1)) throw new IllegalArgumentException("mean burst must be >= 1, got " + meanBurst);
+        if (maxBurst < 1) throw new IllegalArgumentException("burst cap must be >= 1, got " + maxBurst);
+        if (bursts == Bursts.PARETO && !(paretoAlpha > 1))
+            throw new IllegalArgumentException("Pareto alpha must be > 1 for a finite mean, got " + paretoAlpha);
+    }
+
+    private int burst(SplittableRandom rnd) {
+        switch (bursts) {
+            case UNIFORM:
+                return 1 + rnd.nextInt(Math.max(1, (int) Math.round(2 * meanBurst - 1)));
+            case EXPONENTIAL:
+                return 1 + (int) exponential(rnd, Math.max(0, meanBurst - 1));
+            case PARETO:
+                // Scale chosen so the uncapped mean is meanBurst (alpha > 1, see checkSettings)
+                double scale = meanBurst * (paretoAlpha - 1) / paretoAlpha;
+                double x = scale * Math.pow(1 - rnd.nextDouble(), -1 / paretoAlpha);
+                return (int) Math.max(1, Math.min(maxBurst, Math.round(x)));
+            default:
+                throw new IllegalStateException("unknown burst distribution " + bursts);
+        }
+    }
+
+    private int priority(SplittableRandom rnd) {
+        int range = maxPriority - minPriority + 1;
+        if (priorities == Priorities.UNIFORM) return minPriority + rnd.nextInt(range);
+
+        // Squared uniform leans towards maxPriority: most work is background
+        double u = rnd.nextDouble();
+        return maxPriority - (int) (u * u * range);
+    }
+
+    private static double exponential(SplittableRandom rnd, double mean) {
+        return -Math.log(1 - rnd.nextDouble()) * mean;
+    }
+
+    private static int geometric(SplittableRandom rnd, double mean) {
+        if (mean <= 1) return 1;
+        double p = 1 / mean;
+        return 1 + (int) (Math.log(1 - rnd.nextDouble()) / Math.log(1 - p));
+    }
+}
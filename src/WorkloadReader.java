@@ -0,0 +1,111 @@
+import com.google.gson.Gson;
+import com.google.gson.stream.JsonReader;
+import com.google.gson.stream.JsonToken;
+
+import java.io.*;
+import java.nio.charset.StandardCharsets;
+
+// ======================= STREAMING WORKLOAD READER =======================
+// Reads a test_cases_v3 file token by token. Process rows go straight into a
+// Workload.Builder, so no ProcessInput objects (or a tree of the whole file)
+// are ever built and memory is just the int columns plus the name table.
+// Only the small expectedOutput block is bound with Gson.
+final class WorkloadReader {
+
+    private static final Gson GSON = new Gson();
+
+    private WorkloadReader() {}
+
+    static WorkloadFile read(String path) throws IOException {
+        try (Reader in = new BufferedReader(new InputStreamReader(
+                new FileInputStream(path), StandardCharsets.UTF_8), 1 << 16)) {
+            return read(in);
+        }
+    }
+
+    static WorkloadFile read(Reader in) throws IOException {
+        JsonReader json = new JsonReader(in);
+        WorkloadFile file = new WorkloadFile();
+        Workload.Builder builder = new Workload.Builder();
+
+        json.beginObject();
+        while (json.hasNext()) {
+            switch (json.nextName()) {
+                case "name":
+                    file.name = nextStringOrNull(json);
+                    break;
+                case "input":
+                    readInput(json, file, builder);
+                    break;
+                case "expectedOutput":
+                    file.expectedOutput = GSON.fromJson(json, ExpectedOutput.class);
+                    break;
+                default:
+                    json.skipValue();
+            }
+        }
+        json.endObject();
+
+        file.workload = builder.build();
+        return file;
+    }
+
+    // --- Helpers ---
+
+    private static void readInput(JsonReader json, WorkloadFile file, Workload.Builder builder)
+            throws IOException {
+        json.beginObject();
+        while (json.hasNext()) {
+            switch (json.nextName()) {
+                case "contextSwitch":
+                    file.contextSwitch = json.nextInt();
+                    break;
+                case "rrQuantum":
+                    file.rrQuantum = json.nextInt();
+                    break;
+                case "agingInterval":
+                    if (json.peek() == JsonToken.NULL) json.nextNull();
+                    else file.agingInterval = json.nextInt();
+                    break;
+                case "processes":
+                    json.beginArray();
+                    while (json.hasNext()) readProcess(json, builder);
+                    json.endArray();
+                    break;
+                default:
+                    json.skipValue();
+            }
+        }
+        json.endObject();
+    }
+
+    private static void readProcess(JsonReader json, Workload.Builder builder) throws IOException {
+        String name = null;
+        int arrival = 0, burst = 0, priority = 0, quantum = 0;
+
+        json.beginObject();
+        while (json.hasNext()) {
+            switch (json.nextName()) {
+                case "name": name = nextStringOrNull(json); break;
+                case "arrival": arrival = json.nextInt(); break;
+                case "burst": burst = json.nextInt(); break;
+                case "priority": priority = json.nextInt(); break;
+                case "quantum": quantum = json.nextInt(); break;
+                default: json.skipValue();
+            }
+        }
+        json.endObject();
+
+        if (name == null)
+            throw new IOException("process #" + (builder.size() + 1) + " has no name");
+        builder.add(name, arrival, burst, priority, quantum);
+    }
+
+    private static String nextStringOrNull(JsonReader json) throws IOException {
+        if (json.peek() == JsonToken.NULL) {
+            json.nextNull();
+            return null;
+        }
+        return json.nextString();
+    }
+}